@@ -0,0 +1,37 @@
+package com.api.parkingcontrol.simulations;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import java.time.Duration;
+
+import static com.api.parkingcontrol.simulations.ParkingSpotRequests.*;
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Building onboarding: a POST storm registering a new block, with resubmissions that hit
+ * each of the three conflict checks of saveParkingSpot. This load is meant to be served, so a
+ * 503 from the concurrency limiter fails the request.
+ */
+public class BuildingOnboardingSimulation extends Simulation {
+
+    private final int usersPerSec = intProperty("onboarding.usersPerSec", 100);
+    private final int durationSeconds = intProperty("onboarding.durationSeconds", 60);
+
+    private final ScenarioBuilder onboarding = scenario("Building onboarding")
+            .exec(createSpot())
+            .exec(createConflictingSpot());
+
+    {
+        setUp(onboarding.injectOpen(
+                rampUsersPerSec(5).to(usersPerSec).during(Duration.ofSeconds(15)),
+                constantUsersPerSec(usersPerSec).during(Duration.ofSeconds(durationSeconds))))
+                .protocols(HTTP_PROTOCOL)
+                .assertions(
+                        global().failedRequests().percent().lt(1.0),
+                        details("create spot").failedRequests().percent().lt(1.0),
+                        details("create conflicting spot").failedRequests().percent().lt(1.0),
+                        details("create spot").responseTime().percentile(servedPercentile(99.0, 1.0)).lt(1000),
+                        details("create conflicting spot").responseTime().percentile(servedPercentile(99.0, 1.0)).lt(500));
+    }
+}
@@ -0,0 +1,42 @@
+package com.api.parkingcontrol.simulations;
+
+import io.gatling.javaapi.core.Choice;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import java.time.Duration;
+
+import static com.api.parkingcontrol.simulations.ParkingSpotRequests.*;
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Morning gate rush: terminals list and open spots and re-check known plates, ramping
+ * past what the connection pool can serve. Excess load is shed with 503, which counts as a
+ * failed request: the run fails when more than {@code gateRush.maxShedPercent}% is shed, and
+ * the latency of the requests that were served must stay bounded.
+ */
+public class GateRushSimulation extends Simulation {
+
+    private final int peakUsersPerSec = intProperty("gateRush.peakUsersPerSec", 300);
+    private final int durationSeconds = intProperty("gateRush.durationSeconds", 120);
+    private final int maxShedPercent = intProperty("gateRush.maxShedPercent", 5);
+
+    private final ScenarioBuilder gateRush = scenario("Morning gate rush")
+            .exec(listSpots())
+            .exec(getSpot())
+            .pause(Duration.ofMillis(50), Duration.ofMillis(200))
+            .exec(getSpot())
+            .randomSwitch().on(Choice.withWeight(20.0, exec(checkKnownPlate())));
+
+    {
+        setUp(gateRush.injectOpen(
+                rampUsersPerSec(10).to(peakUsersPerSec).during(Duration.ofSeconds(30)),
+                constantUsersPerSec(peakUsersPerSec).during(Duration.ofSeconds(durationSeconds))))
+                .protocols(HTTP_PROTOCOL)
+                .assertions(
+                        global().failedRequests().percent().lt((double) maxShedPercent),
+                        details("get spot").failedRequests().percent().lt((double) maxShedPercent),
+                        global().responseTime().percentile(servedPercentile(99.0, maxShedPercent)).lt(800),
+                        details("get spot").responseTime().percentile(servedPercentile(95.0, maxShedPercent)).lt(300));
+    }
+}
@@ -0,0 +1,43 @@
+package com.api.parkingcontrol.simulations;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import java.time.Duration;
+
+import static com.api.parkingcontrol.simulations.ParkingSpotRequests.*;
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Steady state: mostly reads with a full create/read/update/delete cycle mixed in. Nothing
+ * should be shed at this rate, so a 503 fails the request.
+ */
+public class MixedCrudSimulation extends Simulation {
+
+    private final int usersPerSec = intProperty("mixed.usersPerSec", 50);
+    private final int durationSeconds = intProperty("mixed.durationSeconds", 300);
+
+    private final ScenarioBuilder readers = scenario("Steady state readers")
+            .exec(listSpots())
+            .exec(getSpot());
+
+    private final ScenarioBuilder writers = scenario("Steady state CRUD")
+            .exec(createSpot())
+            .pause(Duration.ofMillis(100))
+            .exec(getCreatedSpot())
+            .exec(updateCreatedSpot())
+            .exec(getCreatedSpot())
+            .exec(deleteCreatedSpot());
+
+    {
+        setUp(
+                readers.injectOpen(constantUsersPerSec(usersPerSec * 4).during(Duration.ofSeconds(durationSeconds))),
+                writers.injectOpen(constantUsersPerSec(usersPerSec).during(Duration.ofSeconds(durationSeconds))))
+                .protocols(HTTP_PROTOCOL)
+                .assertions(
+                        global().failedRequests().percent().lt(0.5),
+                        global().responseTime().percentile(servedPercentile(95.0, 0.5)).lt(250),
+                        global().responseTime().percentile(servedPercentile(99.0, 0.5)).lt(500),
+                        global().requestsPerSec().gt(usersPerSec * 5.0));
+    }
+}
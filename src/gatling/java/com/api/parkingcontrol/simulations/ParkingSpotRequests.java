@@ -0,0 +1,172 @@
+package com.api.parkingcontrol.simulations;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.Choice;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Requests and feeders shared by the simulations. A 503 fails the check like any other unexpected
+ * status; simulations that overload the app on purpose cap the share of failed requests instead.
+ */
+final class ParkingSpotRequests {
+
+    static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+
+    static final HttpProtocolBuilder HTTP_PROTOCOL = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json")
+            .header("X-Condominium-Id", System.getProperty("condominiumId", "load-test"))
+            .shareConnections();
+
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.currentTimeMillis() % 1_000_000L * 1_000L);
+
+    private static final String SPOT_BODY = "{"
+            + "\"parkingSpotNumber\":\"#{parkingSpotNumber}\","
+            + "\"licensePlateCar\":\"#{licensePlateCar}\","
+            + "\"brandCar\":\"Hyundai\","
+            + "\"modelCar\":\"HB20\","
+            + "\"colorCar\":\"Blue\","
+            + "\"responsibleName\":\"Load Test\","
+            + "\"apartment\":\"#{apartment}\","
+            + "\"block\":\"#{block}\""
+            + "}";
+
+    private ParkingSpotRequests() {
+    }
+
+    /**
+     * Fresh spots: a unique plate, spot number and apartment/block per record.
+     */
+    static Iterator<Map<String, Object>> newSpots() {
+        return Stream.generate(() -> {
+            long sequence = SEQUENCE.incrementAndGet();
+            return Map.<String, Object>of(
+                    "parkingSpotNumber", Long.toString(sequence, 36).toUpperCase(),
+                    "licensePlateCar", randomPlate(),
+                    "apartment", Long.toString(sequence),
+                    "block", "LT");
+        }).iterator();
+    }
+
+    /**
+     * Mercosul plate (LLLNLNN).
+     */
+    static String randomPlate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new StringBuilder(7)
+                .append(LETTERS.charAt(random.nextInt(26)))
+                .append(LETTERS.charAt(random.nextInt(26)))
+                .append(LETTERS.charAt(random.nextInt(26)))
+                .append(random.nextInt(10))
+                .append(LETTERS.charAt(random.nextInt(26)))
+                .append(random.nextInt(10))
+                .append(random.nextInt(10))
+                .toString();
+    }
+
+    static ChainBuilder listSpots() {
+        return exec(http("list spots")
+                .get("/parking-spot")
+                .queryParam("page", session -> ThreadLocalRandom.current().nextInt(5))
+                .queryParam("size", 20)
+                .check(status().is(200))
+                .check(jsonPath("$.content[*].id").findRandom().optional().saveAs("spotId"))
+                .check(jsonPath("$.content[*].licensePlateCar").findRandom().optional().saveAs("knownPlate")));
+    }
+
+    static ChainBuilder getSpot() {
+        return doIf(session -> session.contains("spotId")).then(
+                exec(http("get spot")
+                        .get("/parking-spot/#{spotId}")
+                        .check(status().in(200, 404))));
+    }
+
+    /**
+     * A gate terminal re-registering a plate that is already known: exercises the plate check and ends in 409.
+     */
+    static ChainBuilder checkKnownPlate() {
+        return doIf(session -> session.contains("knownPlate")).then(
+                feed(newSpots())
+                        .exec(session -> session.set("licensePlateCar", session.getString("knownPlate")))
+                        .exec(http("check known plate")
+                                .post("/parking-spot")
+                                .body(StringBody(SPOT_BODY))
+                                .check(status().is(409))));
+    }
+
+    static ChainBuilder createSpot() {
+        return feed(newSpots())
+                .exec(http("create spot")
+                        .post("/parking-spot")
+                        .body(StringBody(SPOT_BODY))
+                        .check(status().is(201))
+                        .check(jsonPath("$.id").optional().saveAs("createdId")));
+    }
+
+    /**
+     * Re-submits the last created spot changing a single field, so each of the three conflict checks answers 409.
+     */
+    static ChainBuilder createConflictingSpot() {
+        return doIf(session -> session.contains("createdId")).then(
+                randomSwitch().on(
+                        Choice.withWeight(34.0, exec(session -> session.set("licensePlateCar", randomPlate())
+                                .set("apartment", session.getString("apartment") + "X"))),
+                        Choice.withWeight(33.0, exec(session -> session.set("parkingSpotNumber", session.getString("parkingSpotNumber") + "X")
+                                .set("apartment", session.getString("apartment") + "X"))),
+                        Choice.withWeight(33.0, exec(session -> session.set("parkingSpotNumber", session.getString("parkingSpotNumber") + "X")
+                                .set("licensePlateCar", randomPlate())))
+                ).exec(http("create conflicting spot")
+                        .post("/parking-spot")
+                        .body(StringBody(SPOT_BODY))
+                        .check(status().is(409))));
+    }
+
+    static ChainBuilder updateCreatedSpot() {
+        return doIf(session -> session.contains("createdId")).then(
+                exec(http("update spot")
+                        .put("/parking-spot/#{createdId}")
+                        .body(StringBody(SPOT_BODY))
+                        .check(status().is(200))));
+    }
+
+    static ChainBuilder getCreatedSpot() {
+        return doIf(session -> session.contains("createdId")).then(
+                exec(http("get created spot")
+                        .get("/parking-spot/#{createdId}")
+                        .check(status().is(200))));
+    }
+
+    static ChainBuilder deleteCreatedSpot() {
+        return doIf(session -> session.contains("createdId")).then(
+                exec(http("delete spot")
+                        .delete("/parking-spot/#{createdId}")
+                        .check(status().is(200)))
+                        .exec(session -> session.remove("createdId")));
+    }
+
+    /**
+     * Gatling computes response time percentiles over every response, the fast 503s included. When at most
+     * {@code maxFailedPercent}% of the responses failed, {@code percentile} of the other responses is at or
+     * below the returned percentile of all of them, so asserting on it bounds the latency of the requests
+     * that were actually served (e.g. p99 with 5% shed is p99.05 overall).
+     */
+    static double servedPercentile(double percentile, double maxFailedPercent) {
+        return 100.0 - (100.0 - percentile) * (1.0 - maxFailedPercent / 100.0);
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger(name, defaultValue);
+    }
+}
@@ -0,0 +1,70 @@
+package com.api.parkingcontrol.configs;
+
+import com.api.parkingcontrol.filters.ConcurrencyLimitFilter;
+import com.api.parkingcontrol.limits.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "parking-control.limits", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter readConcurrencyLimiter(
+            @Value("${parking-control.limits.read.initial:20}") int initial,
+            @Value("${parking-control.limits.read.min:4}") int min,
+            @Value("${parking-control.limits.read.max:200}") int max,
+            @Value("${parking-control.limits.read.latency-threshold:200ms}") Duration latencyThreshold,
+            @Value("${parking-control.limits.backoff-ratio:0.9}") double backoffRatio,
+            MeterRegistry meterRegistry) {
+        return registerMetrics(new AdaptiveConcurrencyLimiter(initial, min, max, backoffRatio, latencyThreshold), "read", meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter writeConcurrencyLimiter(
+            @Value("${parking-control.limits.write.initial:10}") int initial,
+            @Value("${parking-control.limits.write.min:2}") int min,
+            @Value("${parking-control.limits.write.max:100}") int max,
+            @Value("${parking-control.limits.write.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${parking-control.limits.backoff-ratio:0.9}") double backoffRatio,
+            MeterRegistry meterRegistry) {
+        return registerMetrics(new AdaptiveConcurrencyLimiter(initial, min, max, backoffRatio, latencyThreshold), "write", meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter readConcurrencyLimiter,
+            AdaptiveConcurrencyLimiter writeConcurrencyLimiter,
+            @Value("${parking-control.limits.retry-after:1s}") Duration retryAfter) {
+        var registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(readConcurrencyLimiter, writeConcurrencyLimiter, Math.max(1, retryAfter.toSeconds())));
+        registration.addUrlPatterns("/parking-spot", "/parking-spot/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private AdaptiveConcurrencyLimiter registerMetrics(AdaptiveConcurrencyLimiter limiter, String type, MeterRegistry meterRegistry) {
+        Gauge.builder("parking.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("type", type)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("parking.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .tag("type", type)
+                .description("Requests currently holding a concurrency permit")
+                .register(meterRegistry);
+        FunctionCounter.builder("parking.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .tag("type", type)
+                .description("Requests shed with 503 because the limit was reached")
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,83 @@
+package com.api.parkingcontrol.configs;
+
+import com.api.parkingcontrol.datasources.ReadReplicaRoutingDataSource;
+import com.api.parkingcontrol.datasources.ReadYourWritesTracker;
+import com.api.parkingcontrol.filters.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, enabled by listing at least one replica in
+ * {@code parking-control.datasource.replica.urls}. Methods annotated with
+ * {@code @Transactional(readOnly = true)} read from the replicas.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "parking-control.datasource.replica", name = "urls")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${parking-control.datasource.replica.urls}") List<String> urls,
+            @Value("${parking-control.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${parking-control.datasource.replica.password:${spring.datasource.password}}") String password,
+            @Value("${parking-control.datasource.replica.failover-cooldown:30s}") Duration failoverCooldown) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, failoverCooldown);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${parking-control.datasource.read-your-writes.window:5s}") Duration window,
+            @Value("${parking-control.datasource.read-your-writes.max-clients:100000}") int maxClients) {
+        return new ReadYourWritesTracker(window, maxClients, Clock.systemUTC());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        var registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesTracker));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
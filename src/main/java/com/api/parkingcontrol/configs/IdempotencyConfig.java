@@ -0,0 +1,41 @@
+package com.api.parkingcontrol.configs;
+
+import com.api.parkingcontrol.filters.IdempotencyFilter;
+import com.api.parkingcontrol.repositories.IdempotencyRecordRepository;
+import com.api.parkingcontrol.services.IdempotencyService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyService idempotencyService(
+            ObjectProvider<IdempotencyRecordRepository> repository,
+            @Value("${parking-control.idempotency.persistent:true}") boolean persistent,
+            @Value("${parking-control.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${parking-control.idempotency.ttl:24h}") Duration ttl,
+            @Value("${parking-control.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            @Value("${parking-control.idempotency.execution-timeout:60s}") Duration executionTimeout) {
+        return new IdempotencyService(persistent ? repository.getIfAvailable() : null,
+                maxEntries, ttl, waitTimeout, executionTimeout, Clock.systemUTC());
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyService idempotencyService,
+            @Value("${parking-control.idempotency.max-body-size:1MB}") DataSize maxBodySize) {
+        var registration = new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, Math.toIntExact(maxBodySize.toBytes())));
+        registration.addUrlPatterns("/parking-spot", "/parking-spot/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+}
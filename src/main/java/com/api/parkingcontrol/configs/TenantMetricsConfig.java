@@ -0,0 +1,76 @@
+package com.api.parkingcontrol.configs;
+
+import com.api.parkingcontrol.controllers.ParkingSpotController;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tags HTTP server metrics with the condominium so each tenant's traffic and latency can be read apart.
+ */
+@Configuration
+public class TenantMetricsConfig {
+
+    static final String CONDOMINIUM_TAG = "condominium";
+    static final String OTHER_CONDOMINIUM = "other";
+//        Same bound the controllers put on the header.
+    static final int MAX_CONDOMINIUM_LENGTH = 64;
+
+    @Bean
+    public WebMvcTagsContributor condominiumTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler, Throwable exception) {
+                return Tags.of(CONDOMINIUM_TAG, condominiumId(request));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.of(CONDOMINIUM_TAG, condominiumId(request));
+            }
+        };
+    }
+
+    /**
+     * The header is client supplied; once {@code maxCondominiums} tenants have been tagged, requests of
+     * any further tenant (and over-long values) are counted under {@code condominium=other} instead, so a
+     * bad client can neither blow up the registry nor hide the requests from the metrics.
+     */
+    @Bean
+    public MeterFilter condominiumTagCardinalityLimit(@Value("${parking-control.metrics.max-condominiums:500}") int maxCondominiums) {
+        Set<String> tagged = ConcurrentHashMap.newKeySet();
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                String condominiumId = id.getTag(CONDOMINIUM_TAG);
+                if (condominiumId == null || !id.getName().equals("http.server.requests") || tagged.contains(condominiumId)) {
+                    return id;
+                }
+                if (condominiumId.length() <= MAX_CONDOMINIUM_LENGTH) {
+                    synchronized (tagged) {
+                        if (tagged.size() < maxCondominiums) {
+                            tagged.add(condominiumId);
+                            return id;
+                        }
+                    }
+                }
+                return id.replaceTags(Tags.of(id.getTagsAsIterable()).and(CONDOMINIUM_TAG, OTHER_CONDOMINIUM));
+            }
+        };
+    }
+
+    private String condominiumId(HttpServletRequest request) {
+        String condominiumId = request.getHeader(ParkingSpotController.CONDOMINIUM_HEADER);
+        return condominiumId == null || condominiumId.isBlank() ? ParkingSpotController.DEFAULT_CONDOMINIUM : condominiumId;
+    }
+}
@@ -0,0 +1,90 @@
+package com.api.parkingcontrol.controllers;
+
+import com.api.parkingcontrol.models.InvoiceModel;
+import com.api.parkingcontrol.services.BillingRun;
+import com.api.parkingcontrol.services.BillingService;
+import com.api.parkingcontrol.services.JobQueueFullException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.constraints.Size;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.api.parkingcontrol.controllers.ParkingSpotController.CONDOMINIUM_HEADER;
+import static com.api.parkingcontrol.controllers.ParkingSpotController.DEFAULT_CONDOMINIUM;
+
+@RestController
+@Profile("!edge")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/billing")
+@Validated
+public class BillingController {
+
+    final BillingService billingService;
+
+    public BillingController(BillingService billingService) {
+        this.billingService = billingService;
+    }
+
+    /**
+     * Queues the billing of a finished month and answers 202 with the run to poll. If the run fails,
+     * starting it again resumes from the last checkpointed day.
+     */
+    @PostMapping("/runs")
+    public ResponseEntity<Object> runBilling(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                             @RequestParam String month,
+                                             @RequestParam(defaultValue = "false") boolean restart) {
+        YearMonth billingMonth;
+        try {
+            billingMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: month must be formatted as yyyy-MM.");
+        }
+        if (!billingService.isFinished(billingMonth)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: The month has not ended yet.");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(billingService.startRun(condominiumId, billingMonth, restart));
+    }
+
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<Object> getBillingRun(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                @PathVariable(value = "runId") UUID runId) {
+        Optional<BillingRun> billingRun = billingService.findRun(condominiumId, runId);
+        if (billingRun.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Billing Run Not Found.");
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(billingRun.get());
+    }
+
+    @GetMapping("/invoices")
+    public ResponseEntity<Page<InvoiceModel>> getInvoices(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                          @RequestParam String month,
+                                                          @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC)
+                                                          Pageable pageable) {
+        return ResponseEntity.status(HttpStatus.OK).body(billingService.findInvoices(condominiumId, month, pageable));
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<Object> handleJobQueueFull(JobQueueFullException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60")
+                .body("Service Unavailable: " + exception.getMessage() + ", try again later.");
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: " + exception.getMessage());
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.api.parkingcontrol.controllers;
+
+import com.api.parkingcontrol.models.OccupancyResolution;
+import com.api.parkingcontrol.services.OccupancyService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+import static com.api.parkingcontrol.controllers.ParkingSpotController.CONDOMINIUM_HEADER;
+import static com.api.parkingcontrol.controllers.ParkingSpotController.DEFAULT_CONDOMINIUM;
+
+@RestController
+@Profile("!edge")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/parking-spot/occupancy-history")
+@Validated
+public class OccupancyHistoryController {
+
+    final OccupancyService occupancyService;
+
+    public OccupancyHistoryController(OccupancyService occupancyService) {
+        this.occupancyService = occupancyService;
+    }
+
+    /**
+     * Occupied spots per block over {@code [from, to)} (UTC). With {@code resolution=auto} the finest
+     * rollup level that fits the range is read, e.g. a year is always answered from daily buckets.
+     */
+    @GetMapping
+    public ResponseEntity<Object> getOccupancyHistory(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                      @RequestParam(required = false) @Size(max = 30) String block,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                      @RequestParam(defaultValue = "auto") String resolution) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now(ZoneId.of("UTC"));
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        if (!end.isAfter(start)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: to must be after from.");
+        }
+
+        OccupancyResolution level;
+        if ("auto".equalsIgnoreCase(resolution)) {
+            level = occupancyService.resolve(start, end);
+        } else {
+            try {
+                level = OccupancyResolution.valueOf(resolution.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: resolution must be one of auto, minute, hour, day.");
+            }
+        }
+        if (!occupancyService.isWithinPointLimit(start, end, level)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: Range too long for this resolution, use a coarser one.");
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(occupancyService.findHistory(condominiumId, block, start, end, level));
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: " + exception.getMessage());
+    }
+
+}
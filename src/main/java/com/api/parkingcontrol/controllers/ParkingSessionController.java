@@ -0,0 +1,85 @@
+package com.api.parkingcontrol.controllers;
+
+import com.api.parkingcontrol.dtos.ParkingSessionDTO;
+import com.api.parkingcontrol.models.ParkingSessionModel;
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import com.api.parkingcontrol.services.ParkingSessionService;
+import com.api.parkingcontrol.services.ParkingSpotService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Valid;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.api.parkingcontrol.controllers.ParkingSpotController.CONDOMINIUM_HEADER;
+import static com.api.parkingcontrol.controllers.ParkingSpotController.DEFAULT_CONDOMINIUM;
+
+@RestController
+@Profile("!edge")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/parking-spot/{parkingSpotId}/sessions")
+@Validated
+public class ParkingSessionController {
+
+    final ParkingSessionService parkingSessionService;
+    final ParkingSpotService parkingSpotService;
+
+    public ParkingSessionController(ParkingSessionService parkingSessionService, ParkingSpotService parkingSpotService) {
+        this.parkingSessionService = parkingSessionService;
+        this.parkingSpotService = parkingSpotService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Object> enter(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                        @PathVariable(value = "parkingSpotId") UUID parkingSpotId,
+                                        @RequestBody @Valid ParkingSessionDTO parkingSessionDto) {
+        Optional<ParkingSpotModel> parkingSpotModelOptional = parkingSpotService.findById(condominiumId, parkingSpotId);
+        if (parkingSpotModelOptional.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Parking Spot Not Found.");
+        }
+        var parkingSpot = parkingSpotModelOptional.get();
+
+        var parkingSessionModel = new ParkingSessionModel();
+        parkingSessionModel.setCondominiumId(condominiumId);
+        parkingSessionModel.setParkingSpotId(parkingSpotId);
+        parkingSessionModel.setLicensePlateCar(parkingSessionDto.getLicensePlateCar());
+        parkingSessionModel.setApartment(parkingSessionDto.getApartment() != null ? parkingSessionDto.getApartment() : parkingSpot.getApartment());
+        parkingSessionModel.setBlock(parkingSessionDto.getBlock() != null ? parkingSessionDto.getBlock() : parkingSpot.getBlock());
+        parkingSessionModel.setEnteredAt(LocalDateTime.now(ZoneId.of("UTC")));
+
+        Optional<ParkingSessionModel> started = parkingSessionService.enter(parkingSessionModel);
+        if (started.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Conflict: Parking Spot is already occupied!");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(started.get());
+    }
+
+    @PostMapping("/{sessionId}/exit")
+    public ResponseEntity<Object> exit(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                       @PathVariable(value = "parkingSpotId") UUID parkingSpotId,
+                                       @PathVariable(value = "sessionId") UUID sessionId) {
+        Optional<ParkingSessionModel> parkingSessionModelOptional = parkingSessionService.findById(condominiumId, parkingSpotId, sessionId);
+        if (parkingSessionModelOptional.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Parking Session Not Found.");
+        }
+        if (parkingSessionModelOptional.get().getExitedAt() != null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Conflict: Parking Session has already ended!");
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(parkingSessionService.exit(parkingSessionModelOptional.get(), LocalDateTime.now(ZoneId.of("UTC"))));
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: " + exception.getMessage());
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.api.parkingcontrol.controllers;
 
 import com.api.parkingcontrol.dtos.ParkingSpotDTO;
+import com.api.parkingcontrol.dtos.ParkingSpotLookupDTO;
 import com.api.parkingcontrol.models.ParkingSpotModel;
 import com.api.parkingcontrol.services.ParkingSpotService;
 import org.springframework.beans.BeanUtils;
@@ -10,11 +11,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,8 +27,12 @@ import java.util.UUID;
 @RestController()
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RequestMapping("/parking-spot")
+@Validated
 public class ParkingSpotController {
 
+    public static final String CONDOMINIUM_HEADER = "X-Condominium-Id";
+    public static final String DEFAULT_CONDOMINIUM = "default";
+
     final ParkingSpotService parkingSpotService;
 
     public ParkingSpotController(ParkingSpotService parkingSpotService) {
@@ -31,16 +40,17 @@ public class ParkingSpotController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> saveParkingSpot(@RequestBody @Valid ParkingSpotDTO parkingSpotDto) {
+    public ResponseEntity<Object> saveParkingSpot(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                  @RequestBody @Valid ParkingSpotDTO parkingSpotDto) {
 
 //        TODO: adicionar em CustomValidation Depois.
-        if (parkingSpotService.existsByLicensePlateCar(parkingSpotDto.getLicensePlateCar())) {
+        if (parkingSpotService.existsByLicensePlateCar(condominiumId, parkingSpotDto.getLicensePlateCar())) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Conflict: License Plate Car is already in use!");
         }
-        if (parkingSpotService.existsByParkingSpotNumber(parkingSpotDto.getParkingSpotNumber())) {
+        if (parkingSpotService.existsByParkingSpotNumber(condominiumId, parkingSpotDto.getParkingSpotNumber())) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Conflict: Parking Spot is already in use!");
         }
-        if (parkingSpotService.existsByApartmentAndBlock(parkingSpotDto.getApartment(), parkingSpotDto.getBlock())) {
+        if (parkingSpotService.existsByApartmentAndBlock(condominiumId, parkingSpotDto.getApartment(), parkingSpotDto.getBlock())) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Conflict: Parking Spot already registered for this apartment/block!");
         }
 
@@ -48,6 +58,7 @@ public class ParkingSpotController {
 
         BeanUtils.copyProperties(parkingSpotDto, parkingSpotModel);
 
+        parkingSpotModel.setCondominiumId(condominiumId);
         parkingSpotModel.setRegistrationDate(LocalDateTime.now(ZoneId.of("UTC")));
 
         return ResponseEntity.status(HttpStatus.CREATED).body(parkingSpotService.save(parkingSpotModel));
@@ -56,15 +67,17 @@ public class ParkingSpotController {
 
     @GetMapping
     public ResponseEntity<Page<ParkingSpotModel>> getAllParkingSpots(
+            @RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
             @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC)
             Pageable pageable
     ) {
-        return ResponseEntity.status(HttpStatus.OK).body(parkingSpotService.findAll(pageable));
+        return ResponseEntity.status(HttpStatus.OK).body(parkingSpotService.findAll(condominiumId, pageable));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getOneParkingSpot(@PathVariable(value = "id") UUID id) {
-        Optional<ParkingSpotModel> parkingSpotModelOptional = parkingSpotService.findById(id);
+    public ResponseEntity<Object> getOneParkingSpot(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                    @PathVariable(value = "id") UUID id) {
+        Optional<ParkingSpotModel> parkingSpotModelOptional = parkingSpotService.findById(condominiumId, id);
 
         if (parkingSpotModelOptional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Parking Spot Not Found.");
@@ -73,9 +86,24 @@ public class ParkingSpotController {
         return ResponseEntity.status(HttpStatus.OK).body(parkingSpotModelOptional.get());
     }
 
+    /**
+     * Resolves many ids in a handful of queries instead of one {@code GET /{id}} per id. Spots come back
+     * in the order of {@code ids}; ids that do not exist in the condominium are listed in {@code missingIds}.
+     * Every chunk is read before the response is written, so a failing chunk ends in an error status
+     * rather than a 200 with a truncated body.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<Object> lookupParkingSpots(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                     @RequestBody @Valid ParkingSpotLookupDTO parkingSpotLookupDTO) {
+        List<ParkingSpotModel> parkingSpots = new ArrayList<>(parkingSpotLookupDTO.getIds().size());
+        List<UUID> missingIds = parkingSpotService.lookup(condominiumId, parkingSpotLookupDTO.getIds(), parkingSpots::add);
+        return ResponseEntity.status(HttpStatus.OK).body(new ParkingSpotLookupResponse(parkingSpots, missingIds));
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteParkingSpot(@PathVariable(value = "id") UUID id) {
-        Optional<ParkingSpotModel> parkingSpotModelOptional = parkingSpotService.findById(id);
+    public ResponseEntity<Object> deleteParkingSpot(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                    @PathVariable(value = "id") UUID id) {
+        Optional<ParkingSpotModel> parkingSpotModelOptional = parkingSpotService.findById(condominiumId, id);
         if (parkingSpotModelOptional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Parking Spot Not Found.");
         }
@@ -85,8 +113,9 @@ public class ParkingSpotController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Object> updateParkingSpot(@PathVariable(value = "id") UUID id, @RequestBody @Valid ParkingSpotDTO parkingSpotDTO) {
-        Optional<ParkingSpotModel> parkingSpotModelOptional = parkingSpotService.findById(id);
+    public ResponseEntity<Object> updateParkingSpot(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                    @PathVariable(value = "id") UUID id, @RequestBody @Valid ParkingSpotDTO parkingSpotDTO) {
+        Optional<ParkingSpotModel> parkingSpotModelOptional = parkingSpotService.findById(condominiumId, id);
         if (parkingSpotModelOptional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Parking Spot Not Found.");
         }
@@ -101,5 +130,9 @@ public class ParkingSpotController {
 
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: " + exception.getMessage());
+    }
 
 }
@@ -0,0 +1,82 @@
+package com.api.parkingcontrol.controllers;
+
+import com.api.parkingcontrol.services.JobQueueFullException;
+import com.api.parkingcontrol.services.ParkingSpotImportJob;
+import com.api.parkingcontrol.services.ParkingSpotImportService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.api.parkingcontrol.controllers.ParkingSpotController.CONDOMINIUM_HEADER;
+import static com.api.parkingcontrol.controllers.ParkingSpotController.DEFAULT_CONDOMINIUM;
+
+@RestController
+@Profile("!edge")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/parking-spot/import")
+@Validated
+public class ParkingSpotImportController {
+
+    final ParkingSpotImportService parkingSpotImportService;
+
+    public ParkingSpotImportController(ParkingSpotImportService parkingSpotImportService) {
+        this.parkingSpotImportService = parkingSpotImportService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Object> importParkingSpots(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                     @RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: The CSV file is empty.");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(parkingSpotImportService.startImport(condominiumId, file));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Object> getImport(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                            @PathVariable(value = "jobId") UUID jobId) {
+        Optional<ParkingSpotImportJob> job = parkingSpotImportService.findJob(condominiumId, jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Import Not Found.");
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(job.get());
+    }
+
+    @GetMapping(value = "/{jobId}/errors", produces = "text/csv")
+    public ResponseEntity<Object> getImportErrors(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                  @PathVariable(value = "jobId") UUID jobId) {
+        Optional<ParkingSpotImportJob> job = parkingSpotImportService.findJob(condominiumId, jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Import Not Found.");
+        }
+
+        var report = new StringBuilder("line,message\n");
+        for (ParkingSpotImportJob.RowError error : job.get().getErrors()) {
+            report.append(error.getLine()).append(",\"").append(error.getMessage().replace("\"", "\"\"")).append("\"\n");
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(report.toString());
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<Object> handleJobQueueFull(JobQueueFullException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60")
+                .body("Service Unavailable: " + exception.getMessage() + ", try again later.");
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: " + exception.getMessage());
+    }
+
+}
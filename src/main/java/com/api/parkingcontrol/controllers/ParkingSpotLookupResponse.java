@@ -0,0 +1,29 @@
+package com.api.parkingcontrol.controllers;
+
+import com.api.parkingcontrol.models.ParkingSpotModel;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Body of {@code POST /parking-spot/lookup}: the spots found, in the order the ids were given,
+ * and the ids that do not exist in the condominium.
+ */
+public class ParkingSpotLookupResponse {
+
+    private final List<ParkingSpotModel> parkingSpots;
+    private final List<UUID> missingIds;
+
+    public ParkingSpotLookupResponse(List<ParkingSpotModel> parkingSpots, List<UUID> missingIds) {
+        this.parkingSpots = parkingSpots;
+        this.missingIds = missingIds;
+    }
+
+    public List<ParkingSpotModel> getParkingSpots() {
+        return parkingSpots;
+    }
+
+    public List<UUID> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,102 @@
+package com.api.parkingcontrol.controllers;
+
+import com.api.parkingcontrol.dtos.VisitorReservationDTO;
+import com.api.parkingcontrol.models.VisitorReservationModel;
+import com.api.parkingcontrol.services.ParkingSpotService;
+import com.api.parkingcontrol.services.VisitorReservationService;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Valid;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.api.parkingcontrol.controllers.ParkingSpotController.CONDOMINIUM_HEADER;
+import static com.api.parkingcontrol.controllers.ParkingSpotController.DEFAULT_CONDOMINIUM;
+
+@RestController
+@Profile("!edge")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/parking-spot/{parkingSpotId}/reservations")
+@Validated
+public class VisitorReservationController {
+
+    final VisitorReservationService visitorReservationService;
+    final ParkingSpotService parkingSpotService;
+
+    public VisitorReservationController(VisitorReservationService visitorReservationService, ParkingSpotService parkingSpotService) {
+        this.visitorReservationService = visitorReservationService;
+        this.parkingSpotService = parkingSpotService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Object> saveReservation(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                  @PathVariable(value = "parkingSpotId") UUID parkingSpotId,
+                                                  @RequestBody @Valid VisitorReservationDTO visitorReservationDto) {
+        if (!visitorReservationDto.getEndsAt().isAfter(visitorReservationDto.getStartsAt())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: endsAt must be after startsAt.");
+        }
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+        if (!visitorReservationDto.getEndsAt().isAfter(now)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: The reservation period has already ended.");
+        }
+        if (parkingSpotService.findById(condominiumId, parkingSpotId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Parking Spot Not Found.");
+        }
+
+        var visitorReservationModel = new VisitorReservationModel();
+
+        BeanUtils.copyProperties(visitorReservationDto, visitorReservationModel);
+
+        visitorReservationModel.setCondominiumId(condominiumId);
+        visitorReservationModel.setParkingSpotId(parkingSpotId);
+        visitorReservationModel.setRegistrationDate(now);
+
+        Optional<VisitorReservationModel> saved = visitorReservationService.reserve(visitorReservationModel);
+        if (saved.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Conflict: Parking Spot is already reserved for this period!");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved.get());
+    }
+
+    @GetMapping
+    public ResponseEntity<Object> getReservations(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                  @PathVariable(value = "parkingSpotId") UUID parkingSpotId,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now(ZoneId.of("UTC"));
+        LocalDateTime end = to != null ? to : start.plusDays(30);
+        if (!end.isAfter(start)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: to must be after from.");
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(visitorReservationService.findAll(condominiumId, parkingSpotId, start, end));
+    }
+
+    @DeleteMapping("/{reservationId}")
+    public ResponseEntity<Object> deleteReservation(@RequestHeader(value = CONDOMINIUM_HEADER, defaultValue = DEFAULT_CONDOMINIUM) @Size(max = 64) String condominiumId,
+                                                    @PathVariable(value = "parkingSpotId") UUID parkingSpotId,
+                                                    @PathVariable(value = "reservationId") UUID reservationId) {
+        Optional<VisitorReservationModel> visitorReservationModelOptional = visitorReservationService.findById(condominiumId, parkingSpotId, reservationId);
+        if (visitorReservationModelOptional.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Reservation Not Found.");
+        }
+
+        visitorReservationService.cancel(visitorReservationModelOptional.get());
+        return ResponseEntity.status(HttpStatus.OK).body("Reservation Canceled successfully");
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Bad Request: " + exception.getMessage());
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.api.parkingcontrol.datasources;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sends read-only transactions to the replicas (round robin) and everything else to the primary.
+ * A replica that fails to hand out a connection is skipped for a cooldown period; when no replica
+ * is available the read falls back to the primary. Errors that are not connection failures, such as
+ * an unsupported call or rejected credentials, are rethrown and leave the replica in rotation.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is only fetched after the transaction has been flagged as read-only.
+ * Closing it closes the replica pools; the primary pool stays owned by whoever created it.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long cooldownNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray unavailableUntil;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration failoverCooldown) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.cooldownNanos = failoverCooldown.toNanos();
+        this.unavailableUntil = new AtomicLongArray(this.replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(DataSource::getConnection);
+    }
+
+    /**
+     * Routed like {@link #getConnection()}; the credentials are passed on to whichever pool is picked.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connection(ConnectionOpener opener) throws SQLException {
+        if (!routeToReplica()) {
+            return opener.open(primary);
+        }
+        Connection connection = replicaConnection(opener);
+        return connection != null ? connection : opener.open(primary);
+    }
+
+    private boolean routeToReplica() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesTracker.isPrimaryPinned();
+    }
+
+    private Connection replicaConnection(ConnectionOpener opener) throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            int index = (start + attempt) % replicas.size();
+            long until = unavailableUntil.get(index);
+            if (until != 0 && System.nanoTime() - until < 0) {
+                continue;
+            }
+            try {
+                Connection connection = opener.open(replicas.get(index));
+                if (until != 0) {
+                    unavailableUntil.compareAndSet(index, until, 0);
+                }
+                return connection;
+            } catch (SQLException e) {
+                if (!isConnectionFailure(e)) {
+                    throw e;
+                }
+                log.warn("Replica {} unavailable, failing over for {} ms", index, cooldownNanos / 1_000_000, e);
+                unavailableUntil.set(index, System.nanoTime() + cooldownNanos);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pool timeouts surface as transient exceptions, driver connect errors as SQLState class 08.
+     */
+    private static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException
+                || e instanceof SQLNonTransientConnectionException) {
+            return true;
+        }
+        String sqlState = e.getSQLState();
+        return sqlState != null && sqlState.startsWith("08");
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+    }
+}
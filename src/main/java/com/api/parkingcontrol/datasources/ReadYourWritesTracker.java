@@ -0,0 +1,62 @@
+package com.api.parkingcontrol.datasources;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients mutated data recently so their follow-up reads are pinned
+ * to the primary until the replicas had time to catch up.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+    private final long windowMillis;
+    private final int maxClients;
+    private final Clock clock;
+
+    public ReadYourWritesTracker(Duration window, int maxClients, Clock clock) {
+        this.windowMillis = window.toMillis();
+        this.maxClients = maxClients;
+        this.clock = clock;
+    }
+
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    public static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PRIMARY_PINNED.remove();
+    }
+
+    public boolean wroteRecently(String clientKey) {
+        Long lastWrite = lastWriteByClient.get(clientKey);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (clock.millis() - lastWrite > windowMillis) {
+            lastWriteByClient.remove(clientKey, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    public void recordWrite(String clientKey) {
+        if (lastWriteByClient.size() >= maxClients) {
+            evictExpired();
+        }
+        lastWriteByClient.put(clientKey, clock.millis());
+    }
+
+    private void evictExpired() {
+        long expiredBefore = clock.millis() - windowMillis;
+        lastWriteByClient.values().removeIf(lastWrite -> lastWrite < expiredBefore);
+    }
+}
@@ -0,0 +1,38 @@
+package com.api.parkingcontrol.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a finished parking session that billing needs, read with a constructor expression
+ * so streaming a month does not load full entities into the persistence context.
+ */
+public class BillableSessionDTO {
+
+    private final String apartment;
+    private final String block;
+    private final LocalDateTime enteredAt;
+    private final LocalDateTime exitedAt;
+
+    public BillableSessionDTO(String apartment, String block, LocalDateTime enteredAt, LocalDateTime exitedAt) {
+        this.apartment = apartment;
+        this.block = block;
+        this.enteredAt = enteredAt;
+        this.exitedAt = exitedAt;
+    }
+
+    public String getApartment() {
+        return apartment;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public LocalDateTime getEnteredAt() {
+        return enteredAt;
+    }
+
+    public LocalDateTime getExitedAt() {
+        return exitedAt;
+    }
+}
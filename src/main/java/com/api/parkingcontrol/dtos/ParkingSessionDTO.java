@@ -0,0 +1,44 @@
+package com.api.parkingcontrol.dtos;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+public class ParkingSessionDTO {
+
+    @NotBlank
+    @Size(max = 7)
+    private String licensePlateCar;
+
+    /**
+     * Apartment billed for the stay; defaults to the parking spot's apartment.
+     */
+    @Size(max = 30)
+    private String apartment;
+
+    @Size(max = 30)
+    private String block;
+
+    public String getLicensePlateCar() {
+        return licensePlateCar;
+    }
+
+    public void setLicensePlateCar(String licensePlateCar) {
+        this.licensePlateCar = licensePlateCar;
+    }
+
+    public String getApartment() {
+        return apartment;
+    }
+
+    public void setApartment(String apartment) {
+        this.apartment = apartment;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 public class ParkingSpotDTO {
 
     @NotBlank
+    @Size(max = 10)
     private String parkingSpotNumber;
 
     @NotBlank
@@ -15,21 +16,27 @@ public class ParkingSpotDTO {
     private String licensePlateCar;
 
     @NotBlank
+    @Size(max = 70)
     private String brandCar;
 
     @NotBlank
+    @Size(max = 70)
     private String modelCar;
 
     @NotBlank
+    @Size(max = 70)
     private String colorCar;
 
     @NotBlank
+    @Size(max = 130)
     private String responsibleName;
 
     @NotBlank
+    @Size(max = 30)
     private String apartment;
 
     @NotBlank
+    @Size(max = 30)
     private String block;
 
     public String getParkingSpotNumber() {
@@ -0,0 +1,21 @@
+package com.api.parkingcontrol.dtos;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public class ParkingSpotLookupDTO {
+
+    @NotNull
+    @Size(min = 1, max = 10000)
+    private List<@NotNull UUID> ids;
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,111 @@
+package com.api.parkingcontrol.filters;
+
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the request body up front so a filter can inspect it and the controller can still read it.
+ * Bodies over {@code maxBodyBytes} are refused with {@link BodyTooLargeException}, checking the
+ * Content-Length first and otherwise stopping the read as soon as the limit is passed.
+ */
+class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    CachedBodyHttpServletRequest(HttpServletRequest request, int maxBodyBytes) throws IOException {
+        super(request);
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            throw new BodyTooLargeException(maxBodyBytes);
+        }
+        this.body = read(request.getInputStream(), maxBodyBytes);
+    }
+
+    private static byte[] read(InputStream input, int maxBodyBytes) throws IOException {
+        var output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            if (output.size() + read > maxBodyBytes) {
+                throw new BodyTooLargeException(maxBodyBytes);
+            }
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream input = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+//                The whole body is already in memory, so it is available at once.
+                try {
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() {
+                return input.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return input.read(buffer, offset, length);
+            }
+        };
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    static class BodyTooLargeException extends IOException {
+
+        BodyTooLargeException(int maxBodyBytes) {
+            super("Request body is larger than " + maxBodyBytes + " bytes");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.api.parkingcontrol.filters;
+
+import com.api.parkingcontrol.limits.AdaptiveConcurrencyLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Sheds load before it reaches the controllers (and the connection pool behind them),
+ * answering 503 with Retry-After instead of letting requests queue.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String REJECTED_MESSAGE = "Service Unavailable: Too many concurrent requests, try again later.";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter,
+                                  long retryAfterSeconds) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        AdaptiveConcurrencyLimiter.Token token = limiter.tryAcquire();
+
+        if (token == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.getWriter().write(REJECTED_MESSAGE);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            token.release();
+        }
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)
+                || ReadOnlyPosts.matches(request);
+    }
+}
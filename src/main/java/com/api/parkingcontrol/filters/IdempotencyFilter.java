@@ -0,0 +1,132 @@
+package com.api.parkingcontrol.filters;
+
+import com.api.parkingcontrol.controllers.ParkingSpotController;
+import com.api.parkingcontrol.models.IdempotencyRecordModel;
+import com.api.parkingcontrol.services.IdempotencyService;
+import com.api.parkingcontrol.services.IdempotentResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Makes POST and PUT safe to retry: the first request carrying an Idempotency-Key runs normally and
+ * its response is recorded; retries with the same key get that response back without reaching the
+ * controller. Keys are scoped by condominium, method and path.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final int maxBodyBytes;
+
+    /**
+     * @param maxBodyBytes largest body that is buffered to be hashed; larger ones are answered with 413
+     */
+    public IdempotencyFilter(IdempotencyService idempotencyService, int maxBodyBytes) {
+        this.idempotencyService = idempotencyService;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+//        Uploads are not buffered in memory to be hashed; CSV imports return a job id to poll instead.
+        return request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !(HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method))
+                || isMultipart(request)
+                || ReadOnlyPosts.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeText(response, HttpStatus.BAD_REQUEST, "Bad Request: Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+
+        CachedBodyHttpServletRequest cachedRequest;
+        try {
+            cachedRequest = new CachedBodyHttpServletRequest(request, maxBodyBytes);
+        } catch (CachedBodyHttpServletRequest.BodyTooLargeException e) {
+            writeText(response, HttpStatus.PAYLOAD_TOO_LARGE, "Payload Too Large: Requests with an Idempotency-Key accept bodies up to " + maxBodyBytes + " bytes.");
+            return;
+        }
+        String requestHash = DigestUtils.md5DigestAsHex(cachedRequest.getBody());
+        String key = scopedKey(request, idempotencyKey);
+
+        IdempotencyService.Outcome outcome = idempotencyService.begin(key, requestHash);
+        switch (outcome.getType()) {
+            case REPLAY:
+                replay(response, outcome.getResponse());
+                return;
+            case MISMATCH:
+                writeText(response, HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity: Idempotency-Key was already used with a different request.");
+                return;
+            case IN_PROGRESS:
+                writeText(response, HttpStatus.CONFLICT, "Conflict: A request with this Idempotency-Key is still being processed.");
+                return;
+            default:
+                execute(cachedRequest, response, filterChain, key, requestHash);
+        }
+    }
+
+    private void execute(CachedBodyHttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, String requestHash) throws ServletException, IOException {
+        var cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean recorded = false;
+        try {
+            filterChain.doFilter(request, cachingResponse);
+            byte[] body = cachingResponse.getContentAsByteArray();
+            if (cachingResponse.getStatus() < 500 && body.length <= IdempotencyRecordModel.MAX_BODY_LENGTH) {
+                idempotencyService.complete(key, new IdempotentResponse(cachingResponse.getStatus(), cachingResponse.getContentType(), body, requestHash));
+                recorded = true;
+            }
+        } finally {
+            if (!recorded) {
+                idempotencyService.abandon(key);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotentResponse stored) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void writeText(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.getWriter().write(message);
+    }
+
+    private String scopedKey(HttpServletRequest request, String idempotencyKey) {
+        String condominiumId = request.getHeader(ParkingSpotController.CONDOMINIUM_HEADER);
+        if (condominiumId == null || condominiumId.isBlank()) {
+            condominiumId = ParkingSpotController.DEFAULT_CONDOMINIUM;
+        }
+        return condominiumId + '|' + request.getMethod() + '|' + request.getRequestURI() + '|' + idempotencyKey;
+    }
+
+    private boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+}
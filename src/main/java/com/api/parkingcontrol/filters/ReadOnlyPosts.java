@@ -0,0 +1,33 @@
+package com.api.parkingcontrol.filters;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Set;
+
+/**
+ * POSTs that only read, because their ids do not fit in a query string (e.g. {@code /parking-spot/lookup}).
+ * The filters treat them as reads: no primary pinning, the read concurrency limit and no idempotency buffering.
+ */
+final class ReadOnlyPosts {
+
+    private static final Set<String> PATHS = Set.of("/parking-spot/lookup");
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private ReadOnlyPosts() {
+    }
+
+    static boolean matches(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return false;
+        }
+//        Same path the handler mapping sees: without the context path, and with the trailing slash it also accepts.
+        String path = URL_PATH_HELPER.getPathWithinApplication(request);
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return PATHS.contains(path);
+    }
+}
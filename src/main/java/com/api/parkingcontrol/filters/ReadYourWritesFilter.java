@@ -0,0 +1,56 @@
+package com.api.parkingcontrol.filters;
+
+import com.api.parkingcontrol.datasources.ReadYourWritesTracker;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Pins mutations, and reads from clients that mutated recently, to the primary datasource.
+ * Clients are identified by the {@code X-Client-Id} header, falling back to the remote address.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientKey = clientKey(request);
+        boolean mutation = isMutation(request);
+
+        if (mutation || tracker.wroteRecently(clientKey)) {
+            ReadYourWritesTracker.pinPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesTracker.unpin();
+            if (mutation && response.getStatus() < 400) {
+                tracker.recordWrite(clientKey);
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+
+    private boolean isMutation(HttpServletRequest request) {
+        String method = request.getMethod();
+        return (HttpMethod.POST.matches(method) && !ReadOnlyPosts.matches(request)) || HttpMethod.PUT.matches(method)
+                || HttpMethod.PATCH.matches(method) || HttpMethod.DELETE.matches(method);
+    }
+}
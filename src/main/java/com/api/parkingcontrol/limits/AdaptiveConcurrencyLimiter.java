@@ -0,0 +1,100 @@
+package com.api.parkingcontrol.limits;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD concurrency limit driven by the measured latency of each request.
+ * The limit grows by one while the limit is being used and requests are fast,
+ * and is cut multiplicatively as soon as a request exceeds the latency threshold.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration latencyThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits: initial=" + initialLimit + ", min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1: " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return a token to be released when the request completes, or {@code null} if the limit is reached.
+     */
+    public Token tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return new Token(current + 1, System.nanoTime());
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private void onSample(int inflightAtStart, long rttNanos) {
+        synchronized (this) {
+            double current = limit;
+            if (rttNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, current * backoffRatio);
+            } else if (inflightAtStart * 2 >= current) {
+                limit = Math.min(maxLimit, current + 1);
+            }
+        }
+    }
+
+    public final class Token {
+
+        private final int inflightAtStart;
+        private final long startNanos;
+        private boolean released;
+
+        private Token(int inflightAtStart, long startNanos) {
+            this.inflightAtStart = inflightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        public void release() {
+            release(System.nanoTime() - startNanos);
+        }
+
+        void release(long rttNanos) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inflight.decrementAndGet();
+            onSample(inflightAtStart, rttNanos);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.api.parkingcontrol.models;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marks a range of a billing run as done; written in the same transaction as its partials, so a
+ * restarted run skips exactly the ranges whose totals are already stored.
+ */
+@Entity
+@Table(name = "TB_BILLING_CHECKPOINT",
+        uniqueConstraints = @UniqueConstraint(name = "UK_BILLING_CHECKPOINT_CONDOMINIUM_MONTH_RANGE",
+                columnNames = {"condominiumId", "billingMonth", "rangeStart"}))
+public class BillingCheckpointModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "com.api.parkingcontrol.models.TimeOrderedUuidGenerator")
+    private UUID id;
+
+    @Column(nullable = false, length = 64, updatable = false)
+    private String condominiumId;
+
+    @Column(nullable = false, length = 7)
+    private String billingMonth;
+
+    @Column(nullable = false)
+    private LocalDateTime rangeStart;
+
+    @Column(nullable = false)
+    private long sessions;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getCondominiumId() {
+        return condominiumId;
+    }
+
+    public void setCondominiumId(String condominiumId) {
+        this.condominiumId = condominiumId;
+    }
+
+    public String getBillingMonth() {
+        return billingMonth;
+    }
+
+    public void setBillingMonth(String billingMonth) {
+        this.billingMonth = billingMonth;
+    }
+
+    public LocalDateTime getRangeStart() {
+        return rangeStart;
+    }
+
+    public void setRangeStart(LocalDateTime rangeStart) {
+        this.rangeStart = rangeStart;
+    }
+
+    public long getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(long sessions) {
+        this.sessions = sessions;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
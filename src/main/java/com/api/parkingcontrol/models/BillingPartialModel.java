@@ -0,0 +1,120 @@
+package com.api.parkingcontrol.models;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Totals of one apartment/block within one checkpointed range of a billing run.
+ */
+@Entity
+@Table(name = "TB_BILLING_PARTIAL",
+        indexes = @Index(name = "IX_BILLING_PARTIAL_CONDOMINIUM_MONTH", columnList = "condominiumId, billingMonth"))
+public class BillingPartialModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "com.api.parkingcontrol.models.TimeOrderedUuidGenerator")
+    private UUID id;
+
+    @Column(nullable = false, length = 64, updatable = false)
+    private String condominiumId;
+
+    @Column(nullable = false, length = 7)
+    private String billingMonth;
+
+    @Column(nullable = false)
+    private LocalDateTime rangeStart;
+
+    @Column(nullable = false, length = 30)
+    private String apartment;
+
+    @Column(nullable = false, length = 30)
+    private String block;
+
+    @Column(nullable = false)
+    private long sessions;
+
+    @Column(nullable = false)
+    private long billedMinutes;
+
+    @Column(nullable = false)
+    private long amountCents;
+
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getCondominiumId() {
+        return condominiumId;
+    }
+
+    public void setCondominiumId(String condominiumId) {
+        this.condominiumId = condominiumId;
+    }
+
+    public String getBillingMonth() {
+        return billingMonth;
+    }
+
+    public void setBillingMonth(String billingMonth) {
+        this.billingMonth = billingMonth;
+    }
+
+    public LocalDateTime getRangeStart() {
+        return rangeStart;
+    }
+
+    public void setRangeStart(LocalDateTime rangeStart) {
+        this.rangeStart = rangeStart;
+    }
+
+    public String getApartment() {
+        return apartment;
+    }
+
+    public void setApartment(String apartment) {
+        this.apartment = apartment;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+
+    public long getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(long sessions) {
+        this.sessions = sessions;
+    }
+
+    public long getBilledMinutes() {
+        return billedMinutes;
+    }
+
+    public void setBilledMinutes(long billedMinutes) {
+        this.billedMinutes = billedMinutes;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+}
@@ -0,0 +1,47 @@
+package com.api.parkingcontrol.models;
+
+/**
+ * Packs a 7 character plate (Mercosul LLLNLNN or legacy LLLNNNN) into a long as a base 36 number,
+ * so the plate index and lookups work on a bigint instead of a collated string.
+ * Only upper case letters and digits are packed; anything else keeps the string representation.
+ */
+public final class LicensePlateCodec {
+
+    static final int PLATE_LENGTH = 7;
+    private static final int RADIX = 36;
+
+    private LicensePlateCodec() {
+    }
+
+    /**
+     * @return the packed plate, or {@code null} when the plate does not have the packable format.
+     */
+    public static Long encode(String plate) {
+        if (plate == null || plate.length() != PLATE_LENGTH) {
+            return null;
+        }
+        long code = 0;
+        for (int i = 0; i < PLATE_LENGTH; i++) {
+            char c = plate.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 10;
+            } else {
+                return null;
+            }
+            code = code * RADIX + digit;
+        }
+        return code;
+    }
+
+    public static String decode(long code) {
+        char[] plate = new char[PLATE_LENGTH];
+        for (int i = PLATE_LENGTH - 1; i >= 0; i--) {
+            plate[i] = Character.toUpperCase(Character.forDigit((int) (code % RADIX), RADIX));
+            code /= RADIX;
+        }
+        return new String(plate);
+    }
+}
@@ -0,0 +1,29 @@
+package com.api.parkingcontrol.models;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of the occupancy time series; each level is rolled up from the one before it.
+ */
+public enum OccupancyResolution {
+
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    OccupancyResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Duration getDuration() {
+        return unit.getDuration();
+    }
+
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,144 @@
+package com.api.parkingcontrol.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Occupied spots of one block during one bucket (UTC). Minute buckets hold a single sample; hour and
+ * day buckets keep the sum and count of the minute samples they cover, so rolling them up again
+ * stays exact.
+ */
+@Entity
+@Table(name = "TB_OCCUPANCY_SAMPLE",
+        uniqueConstraints = @UniqueConstraint(name = "UK_OCCUPANCY_SAMPLE_SERIES_BUCKET",
+                columnNames = {"condominiumId", "block", "resolution", "bucketStart"}),
+        indexes = @Index(name = "IX_OCCUPANCY_SAMPLE_RESOLUTION_BUCKET", columnList = "resolution, bucketStart"))
+public class OccupancySampleModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonIgnore
+    @Id
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "com.api.parkingcontrol.models.TimeOrderedUuidGenerator")
+    private UUID id;
+
+    @JsonIgnore
+    @Column(nullable = false, length = 64, updatable = false)
+    private String condominiumId;
+
+    @Column(nullable = false, length = 30)
+    private String block;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 6)
+    private OccupancyResolution resolution;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private long occupiedSum;
+
+    @Column(nullable = false)
+    private int samples;
+
+    @Column(nullable = false)
+    private int occupiedMin;
+
+    @Column(nullable = false)
+    private int occupiedMax;
+
+    @Column(nullable = false)
+    private int totalSpots;
+
+
+    public double getOccupiedAverage() {
+        return samples == 0 ? 0 : (double) occupiedSum / samples;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getCondominiumId() {
+        return condominiumId;
+    }
+
+    public void setCondominiumId(String condominiumId) {
+        this.condominiumId = condominiumId;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+
+    public OccupancyResolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(OccupancyResolution resolution) {
+        this.resolution = resolution;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getOccupiedSum() {
+        return occupiedSum;
+    }
+
+    public void setOccupiedSum(long occupiedSum) {
+        this.occupiedSum = occupiedSum;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+
+    public int getOccupiedMin() {
+        return occupiedMin;
+    }
+
+    public void setOccupiedMin(int occupiedMin) {
+        this.occupiedMin = occupiedMin;
+    }
+
+    public int getOccupiedMax() {
+        return occupiedMax;
+    }
+
+    public void setOccupiedMax(int occupiedMax) {
+        this.occupiedMax = occupiedMax;
+    }
+
+    public int getTotalSpots() {
+        return totalSpots;
+    }
+
+    public void setTotalSpots(int totalSpots) {
+        this.totalSpots = totalSpots;
+    }
+}
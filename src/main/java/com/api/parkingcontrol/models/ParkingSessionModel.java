@@ -0,0 +1,113 @@
+package com.api.parkingcontrol.models;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A car's stay on a parking spot, billed to an apartment/block. {@code exitedAt} is null while the
+ * car is still parked. Times are UTC.
+ */
+@Entity
+@Table(name = "TB_PARKING_SESSION",
+        indexes = {
+                @Index(name = "IX_PARKING_SESSION_CONDOMINIUM_EXITED_AT", columnList = "condominiumId, exitedAt"),
+                @Index(name = "IX_PARKING_SESSION_SPOT_EXITED_AT", columnList = "parkingSpotId, exitedAt")
+        })
+public class ParkingSessionModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "com.api.parkingcontrol.models.TimeOrderedUuidGenerator")
+    private UUID id;
+
+    @Column(nullable = false, length = 64, updatable = false)
+    private String condominiumId;
+
+    @Column(nullable = false, updatable = false)
+    private UUID parkingSpotId;
+
+    @Column(nullable = false, length = 7)
+    private String licensePlateCar;
+
+    @Column(nullable = false, length = 30)
+    private String apartment;
+
+    @Column(nullable = false, length = 30)
+    private String block;
+
+    @Column(nullable = false)
+    private LocalDateTime enteredAt;
+
+    @Column
+    private LocalDateTime exitedAt;
+
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getCondominiumId() {
+        return condominiumId;
+    }
+
+    public void setCondominiumId(String condominiumId) {
+        this.condominiumId = condominiumId;
+    }
+
+    public UUID getParkingSpotId() {
+        return parkingSpotId;
+    }
+
+    public void setParkingSpotId(UUID parkingSpotId) {
+        this.parkingSpotId = parkingSpotId;
+    }
+
+    public String getLicensePlateCar() {
+        return licensePlateCar;
+    }
+
+    public void setLicensePlateCar(String licensePlateCar) {
+        this.licensePlateCar = licensePlateCar;
+    }
+
+    public String getApartment() {
+        return apartment;
+    }
+
+    public void setApartment(String apartment) {
+        this.apartment = apartment;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+
+    public LocalDateTime getEnteredAt() {
+        return enteredAt;
+    }
+
+    public void setEnteredAt(LocalDateTime enteredAt) {
+        this.enteredAt = enteredAt;
+    }
+
+    public LocalDateTime getExitedAt() {
+        return exitedAt;
+    }
+
+    public void setExitedAt(LocalDateTime exitedAt) {
+        this.exitedAt = exitedAt;
+    }
+}
@@ -1,25 +1,49 @@
 package com.api.parkingcontrol.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.GenericGenerator;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "TB_PARKING_SPOT")
+@Table(name = "TB_PARKING_SPOT",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "UK_PARKING_SPOT_CONDOMINIUM_NUMBER", columnNames = {"condominiumId", "parkingSpotNumber"}),
+                @UniqueConstraint(name = "UK_PARKING_SPOT_CONDOMINIUM_PLATE_CODE", columnNames = {"condominiumId", "licensePlateCode"}),
+                @UniqueConstraint(name = "UK_PARKING_SPOT_CONDOMINIUM_PLATE_UNPACKED", columnNames = {"condominiumId", "licensePlateUnpacked"})
+        },
+        indexes = @Index(name = "IX_PARKING_SPOT_CONDOMINIUM_APARTMENT_BLOCK", columnList = "condominiumId, apartment, block"))
 public class ParkingSpotModel implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "com.api.parkingcontrol.models.TimeOrderedUuidGenerator")
     private UUID id;
 
-    @Column(nullable = false, unique = true, length = 10)
+    @Column(nullable = false, length = 64, updatable = false)
+    private String condominiumId;
+
+    @Column(nullable = false, length = 10)
     private String parkingSpotNumber;
 
-    @Column(nullable = false, unique = true, length = 7)
+    @Column(nullable = false, length = 7)
     private String licensePlateCar;
 
+    @JsonIgnore
+    @Column
+    private Long licensePlateCode;
+
+    /**
+     * The plate again when it cannot be packed, otherwise null, so each plate is unique through exactly one of the two keys.
+     */
+    @JsonIgnore
+    @Column(length = 7)
+    private String licensePlateUnpacked;
+
     @Column(nullable = false, length = 70)
     private String brandCar;
 
@@ -50,6 +74,14 @@ public class ParkingSpotModel implements Serializable {
         this.id = id;
     }
 
+    public String getCondominiumId() {
+        return condominiumId;
+    }
+
+    public void setCondominiumId(String condominiumId) {
+        this.condominiumId = condominiumId;
+    }
+
     public String getParkingSpotNumber() {
         return parkingSpotNumber;
     }
@@ -64,6 +96,24 @@ public class ParkingSpotModel implements Serializable {
 
     public void setLicensePlateCar(String licensePlateCar) {
         this.licensePlateCar = licensePlateCar;
+        this.licensePlateCode = LicensePlateCodec.encode(licensePlateCar);
+        this.licensePlateUnpacked = licensePlateCode == null ? licensePlateCar : null;
+    }
+
+    public Long getLicensePlateCode() {
+        return licensePlateCode;
+    }
+
+    public void setLicensePlateCode(Long licensePlateCode) {
+        this.licensePlateCode = licensePlateCode;
+    }
+
+    public String getLicensePlateUnpacked() {
+        return licensePlateUnpacked;
+    }
+
+    public void setLicensePlateUnpacked(String licensePlateUnpacked) {
+        this.licensePlateUnpacked = licensePlateUnpacked;
     }
 
     public String getBrandCar() {
@@ -121,5 +171,4 @@ public class ParkingSpotModel implements Serializable {
     public void setBlock(String block) {
         this.block = block;
     }
-
 }
@@ -0,0 +1,52 @@
+package com.api.parkingcontrol.models;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generates version 7 UUIDs: 48 bits of Unix epoch milliseconds followed by a 12 bit sequence and
+ * 62 random bits. New ids sort after older ones, so inserts append to the right edge of the primary
+ * key index instead of touching random pages. They remain ordinary UUIDs, so rows with existing
+ * random (version 4) ids keep working.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastMillis;
+    private static int sequence;
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+
+    public static UUID next() {
+        long millis;
+        int seq;
+        synchronized (TimeOrderedUuidGenerator.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                sequence = 0;
+            } else if (sequence < MAX_SEQUENCE) {
+                sequence++;
+            } else {
+                // Sequence exhausted (or clock went back): borrow the next millisecond to stay monotonic.
+                lastMillis++;
+                sequence = 0;
+            }
+            millis = lastMillis;
+            seq = sequence;
+        }
+
+        long mostSigBits = (millis & 0xFFFF_FFFF_FFFFL) << 16 | 0x7000L | seq;
+        long leastSigBits = RANDOM.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,110 @@
+package com.api.parkingcontrol.models;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A visitor's booking of a parking spot for {@code [startsAt, endsAt)}, in UTC. Bookings of the same
+ * spot never overlap; see db/migrations/tb_visitor_reservation_exclusion.sql.
+ */
+@Entity
+@Table(name = "TB_VISITOR_RESERVATION",
+        indexes = @Index(name = "IX_VISITOR_RESERVATION_SPOT_STARTS_AT", columnList = "parkingSpotId, startsAt"))
+public class VisitorReservationModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "com.api.parkingcontrol.models.TimeOrderedUuidGenerator")
+    private UUID id;
+
+    @Column(nullable = false, length = 64, updatable = false)
+    private String condominiumId;
+
+    @Column(nullable = false, updatable = false)
+    private UUID parkingSpotId;
+
+    @Column(nullable = false, length = 130)
+    private String visitorName;
+
+    @Column(nullable = false, length = 7)
+    private String licensePlateCar;
+
+    @Column(nullable = false)
+    private LocalDateTime startsAt;
+
+    @Column(nullable = false)
+    private LocalDateTime endsAt;
+
+    @Column(nullable = false)
+    private LocalDateTime registrationDate;
+
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getCondominiumId() {
+        return condominiumId;
+    }
+
+    public void setCondominiumId(String condominiumId) {
+        this.condominiumId = condominiumId;
+    }
+
+    public UUID getParkingSpotId() {
+        return parkingSpotId;
+    }
+
+    public void setParkingSpotId(UUID parkingSpotId) {
+        this.parkingSpotId = parkingSpotId;
+    }
+
+    public String getVisitorName() {
+        return visitorName;
+    }
+
+    public void setVisitorName(String visitorName) {
+        this.visitorName = visitorName;
+    }
+
+    public String getLicensePlateCar() {
+        return licensePlateCar;
+    }
+
+    public void setLicensePlateCar(String licensePlateCar) {
+        this.licensePlateCar = licensePlateCar;
+    }
+
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+
+    public LocalDateTime getRegistrationDate() {
+        return registrationDate;
+    }
+
+    public void setRegistrationDate(LocalDateTime registrationDate) {
+        this.registrationDate = registrationDate;
+    }
+}
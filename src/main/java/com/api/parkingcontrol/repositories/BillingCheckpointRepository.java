@@ -0,0 +1,23 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.BillingCheckpointModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BillingCheckpointRepository extends JpaRepository<BillingCheckpointModel, UUID> {
+
+    @Query("select c.rangeStart from BillingCheckpointModel c where c.condominiumId = :condominiumId and c.billingMonth = :billingMonth")
+    List<LocalDateTime> findRangeStarts(@Param("condominiumId") String condominiumId, @Param("billingMonth") String billingMonth);
+
+    @Modifying
+    @Query("delete from BillingCheckpointModel c where c.condominiumId = :condominiumId and c.billingMonth = :billingMonth")
+    int deleteByMonth(@Param("condominiumId") String condominiumId, @Param("billingMonth") String billingMonth);
+}
@@ -0,0 +1,34 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.BillingPartialModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BillingPartialRepository extends JpaRepository<BillingPartialModel, UUID> {
+
+    @Query("select p.apartment as apartment, p.block as block, sum(p.sessions) as sessions, " +
+            "sum(p.billedMinutes) as billedMinutes, sum(p.amountCents) as amountCents " +
+            "from BillingPartialModel p where p.condominiumId = :condominiumId and p.billingMonth = :billingMonth " +
+            "group by p.apartment, p.block")
+    List<BillingTotals> sumByApartmentAndBlock(@Param("condominiumId") String condominiumId,
+                                               @Param("billingMonth") String billingMonth);
+
+    @Modifying
+    @Query("delete from BillingPartialModel p where p.condominiumId = :condominiumId and p.billingMonth = :billingMonth")
+    int deleteByMonth(@Param("condominiumId") String condominiumId, @Param("billingMonth") String billingMonth);
+
+    interface BillingTotals {
+        String getApartment();
+        String getBlock();
+        long getSessions();
+        long getBilledMinutes();
+        long getAmountCents();
+    }
+}
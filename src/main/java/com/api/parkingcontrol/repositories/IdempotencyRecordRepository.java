@@ -0,0 +1,47 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.IdempotencyRecordModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecordModel, String> {
+
+    /**
+     * Completes the claim made at {@code createdAt}; 0 when another execution took the key over since.
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecordModel r set r.completed = true, r.responseStatus = :responseStatus, " +
+            "r.contentType = :contentType, r.responseBody = :responseBody, r.expiresAt = :expiresAt " +
+            "where r.idempotencyKey = :idempotencyKey and r.createdAt = :createdAt and r.completed = false")
+    int complete(@Param("idempotencyKey") String idempotencyKey,
+                 @Param("createdAt") LocalDateTime createdAt,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("contentType") String contentType,
+                 @Param("responseBody") byte[] responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Deletes the record only if it is still the claim that was read; 0 when another instance
+     * replaced it in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecordModel r where r.idempotencyKey = :idempotencyKey " +
+            "and r.createdAt = :createdAt and r.requestHash = :requestHash")
+    int deleteClaim(@Param("idempotencyKey") String idempotencyKey,
+                    @Param("createdAt") LocalDateTime createdAt,
+                    @Param("requestHash") String requestHash);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecordModel r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.InvoiceModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface InvoiceRepository extends JpaRepository<InvoiceModel, UUID> {
+
+    Page<InvoiceModel> findAllByCondominiumIdAndBillingMonth(String condominiumId, String billingMonth, Pageable pageable);
+
+    @Modifying
+    @Query("delete from InvoiceModel i where i.condominiumId = :condominiumId and i.billingMonth = :billingMonth")
+    int deleteByMonth(@Param("condominiumId") String condominiumId, @Param("billingMonth") String billingMonth);
+}
@@ -0,0 +1,76 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.LicensePlateCodec;
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("!edge")
+public class JpaParkingSpotStore implements ParkingSpotStore {
+
+    final ParkingSpotRepository parkingSpotRepository;
+
+    public JpaParkingSpotStore(ParkingSpotRepository parkingSpotRepository) {
+        this.parkingSpotRepository = parkingSpotRepository;
+    }
+
+    @Override
+    @Transactional
+    public ParkingSpotModel save(ParkingSpotModel parkingSpotModel) {
+        return parkingSpotRepository.save(parkingSpotModel);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByLicensePlateCar(String condominiumId, String licensePlateCar) {
+        Long licensePlateCode = LicensePlateCodec.encode(licensePlateCar);
+        return licensePlateCode != null
+                ? parkingSpotRepository.existsByCondominiumIdAndLicensePlateCode(condominiumId, licensePlateCode)
+                : parkingSpotRepository.existsByCondominiumIdAndLicensePlateUnpacked(condominiumId, licensePlateCar);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByParkingSpotNumber(String condominiumId, String parkingSpotNumber) {
+        return parkingSpotRepository.existsByCondominiumIdAndParkingSpotNumber(condominiumId, parkingSpotNumber);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByApartmentAndBlock(String condominiumId, String apartment, String block) {
+        return parkingSpotRepository.existsByCondominiumIdAndApartmentAndBlock(condominiumId, apartment, block);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ParkingSpotModel> findAll(String condominiumId, Pageable pageable) {
+        return parkingSpotRepository.findAllByCondominiumId(condominiumId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ParkingSpotModel> findById(String condominiumId, UUID id) {
+        return parkingSpotRepository.findByCondominiumIdAndId(condominiumId, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ParkingSpotModel> findAllById(String condominiumId, Collection<UUID> ids) {
+        return parkingSpotRepository.findAllByCondominiumIdAndIdIn(condominiumId, ids);
+    }
+
+    @Override
+    @Transactional
+    public void delete(ParkingSpotModel parkingSpotModel) {
+        parkingSpotRepository.delete(parkingSpotModel);
+    }
+}
@@ -0,0 +1,400 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import com.api.parkingcontrol.models.TimeOrderedUuidGenerator;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Parking spots in an embedded MVStore file, for sites without a database server. Spots are kept
+ * by id in one map; plate, spot number, apartment/block and condominium listing each have an index
+ * map whose keys are length-prefixed, so a lookup is a single B-tree probe.
+ * <p>
+ * Writes are serialized and every write commits all maps together, so the file only ever holds
+ * whole writes: after a crash MVStore reopens at the last complete commit. Indexes are checked
+ * against the spots on open and rebuilt if a file from elsewhere disagrees. Obsolete chunks are
+ * compacted periodically and the file is compacted once more on shutdown.
+ */
+@Repository
+@Profile("edge")
+public class MvStoreParkingSpotStore implements ParkingSpotStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MvStoreParkingSpotStore.class);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int COMPACTION_WRITE_LIMIT = 16 * 1024 * 1024;
+    private static final long CLOSE_COMPACTION_MILLIS = 2_000;
+
+    private final MVStore store;
+    private final MVMap<String, byte[]> spots;
+    private final MVMap<String, String> byCondominium;
+    private final MVMap<String, String> byLicensePlateCar;
+    private final MVMap<String, String> byParkingSpotNumber;
+    private final MVMap<String, String> byApartmentAndBlock;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final boolean syncOnCommit;
+    private final int compactionFillRate;
+
+    public MvStoreParkingSpotStore(@Value("${parking-control.edge.store-file:data/parking-spots.mv.db}") String fileName,
+                                   @Value("${parking-control.edge.cache-size-mb:16}") int cacheSizeMb,
+                                   @Value("${parking-control.edge.sync-on-commit:true}") boolean syncOnCommit,
+                                   @Value("${parking-control.edge.compaction.target-fill-rate:80}") int compactionFillRate) {
+        Path parent = Path.of(fileName).toAbsolutePath().getParent();
+        try {
+            Files.createDirectories(parent);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create " + parent, e);
+        }
+        this.store = new MVStore.Builder()
+                .fileName(fileName)
+                .cacheSize(cacheSizeMb)
+                .autoCommitDisabled()
+                .open();
+        this.spots = store.openMap("spots");
+        this.byCondominium = store.openMap("spots_by_condominium");
+        this.byLicensePlateCar = store.openMap("spots_by_license_plate_car");
+        this.byParkingSpotNumber = store.openMap("spots_by_parking_spot_number");
+        this.byApartmentAndBlock = store.openMap("spots_by_apartment_block");
+        this.syncOnCommit = syncOnCommit;
+        this.compactionFillRate = compactionFillRate;
+        verifyIndexes();
+    }
+
+    /**
+     * @throws DataIntegrityViolationException when another spot of the condominium has the same
+     *                                         plate or spot number, like the unique keys of TB_PARKING_SPOT
+     */
+    @Override
+    public ParkingSpotModel save(ParkingSpotModel parkingSpotModel) {
+        writeLock.lock();
+        try {
+            if (parkingSpotModel.getId() == null) {
+                parkingSpotModel.setId(TimeOrderedUuidGenerator.next());
+            }
+            String id = parkingSpotModel.getId().toString();
+            String condominiumId = parkingSpotModel.getCondominiumId();
+            checkUnique(byLicensePlateCar, key(condominiumId, parkingSpotModel.getLicensePlateCar()), id, "UK_PARKING_SPOT_CONDOMINIUM_PLATE_CODE");
+            checkUnique(byParkingSpotNumber, key(condominiumId, parkingSpotModel.getParkingSpotNumber()), id, "UK_PARKING_SPOT_CONDOMINIUM_NUMBER");
+
+            byte[] previous = spots.put(id, encode(parkingSpotModel));
+            if (previous != null) {
+                removeIndexes(decode(id, previous));
+            }
+            addIndexes(parkingSpotModel);
+            commit();
+            return parkingSpotModel;
+        } catch (RuntimeException e) {
+            store.rollback();
+            throw e;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByLicensePlateCar(String condominiumId, String licensePlateCar) {
+        return byLicensePlateCar.containsKey(key(condominiumId, licensePlateCar));
+    }
+
+    @Override
+    public boolean existsByParkingSpotNumber(String condominiumId, String parkingSpotNumber) {
+        return byParkingSpotNumber.containsKey(key(condominiumId, parkingSpotNumber));
+    }
+
+    @Override
+    public boolean existsByApartmentAndBlock(String condominiumId, String apartment, String block) {
+        String prefix = key(condominiumId, apartment, block);
+        String first = byApartmentAndBlock.ceilingKey(prefix);
+        return first != null && first.startsWith(prefix);
+    }
+
+    /**
+     * Pages in id order by position in the condominium index, without reading the spots before
+     * the page; other sort orders load the condominium's spots and sort them in memory, which is
+     * fine for the size of an edge site.
+     */
+    @Override
+    public Page<ParkingSpotModel> findAll(String condominiumId, Pageable pageable) {
+        String prefix = key(condominiumId);
+        long first = insertionIndex(byCondominium, prefix);
+        long total = insertionIndex(byCondominium, prefix + Character.MAX_VALUE) - first;
+
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+        if (sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1)) {
+            boolean descending = idOrder != null && idOrder.isDescending();
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            long end = pageable.isPaged() ? Math.min(total, offset + pageable.getPageSize()) : total;
+            List<ParkingSpotModel> content = new ArrayList<>();
+            for (long position = offset; position < end; position++) {
+                String id = byCondominium.get(byCondominium.getKey(descending ? first + total - 1 - position : first + position));
+                content.add(decode(id, spots.get(id)));
+            }
+            return new PageImpl<>(content, pageable, total);
+        }
+
+        List<ParkingSpotModel> all = new ArrayList<>((int) total);
+        Cursor<String, String> cursor = byCondominium.cursor(prefix);
+        while (cursor.hasNext() && cursor.next().startsWith(prefix)) {
+            all.add(decode(cursor.getValue(), spots.get(cursor.getValue())));
+        }
+        all.sort(comparator(sort));
+        return new PageImpl<>(page(all, pageable), pageable, total);
+    }
+
+    @Override
+    public Optional<ParkingSpotModel> findById(String condominiumId, UUID id) {
+        String key = id.toString();
+        return Optional.ofNullable(spots.get(key))
+                .map(value -> decode(key, value))
+                .filter(spot -> spot.getCondominiumId().equals(condominiumId));
+    }
+
+    @Override
+    public List<ParkingSpotModel> findAllById(String condominiumId, Collection<UUID> ids) {
+        List<ParkingSpotModel> found = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            findById(condominiumId, id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public void delete(ParkingSpotModel parkingSpotModel) {
+        writeLock.lock();
+        try {
+            String id = parkingSpotModel.getId().toString();
+            byte[] previous = spots.remove(id);
+            if (previous != null) {
+                removeIndexes(decode(id, previous));
+                commit();
+            }
+        } catch (RuntimeException e) {
+            store.rollback();
+            throw e;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites live pages out of chunks that fell below the target fill rate, so the space of
+     * updated and deleted spots can be reused.
+     */
+    @Scheduled(fixedDelayString = "${parking-control.edge.compaction.interval:PT10M}")
+    public void compact() {
+        writeLock.lock();
+        try {
+            if (!store.isClosed() && store.compact(compactionFillRate, COMPACTION_WRITE_LIMIT)) {
+                commit();
+                log.debug("Compacted parking spot store, fill rate now {}%", store.getFillRate());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            if (!store.isClosed()) {
+                store.close(CLOSE_COMPACTION_MILLIS);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    MVStore store() {
+        return store;
+    }
+
+    /**
+     * Every spot has exactly one entry in each index; any other count means the index maps do not
+     * belong to the spots (e.g. a file written by an older version), so they are rebuilt.
+     */
+    private void verifyIndexes() {
+        long size = spots.sizeAsLong();
+        if (byCondominium.sizeAsLong() == size && byLicensePlateCar.sizeAsLong() == size
+                && byParkingSpotNumber.sizeAsLong() == size && byApartmentAndBlock.sizeAsLong() == size) {
+            return;
+        }
+        log.warn("Parking spot indexes do not match the {} stored spots, rebuilding them", size);
+        byCondominium.clear();
+        byLicensePlateCar.clear();
+        byParkingSpotNumber.clear();
+        byApartmentAndBlock.clear();
+        Cursor<String, byte[]> cursor = spots.cursor(null);
+        while (cursor.hasNext()) {
+            String id = cursor.next();
+            addIndexes(decode(id, cursor.getValue()));
+        }
+        commit();
+    }
+
+    private static long insertionIndex(MVMap<String, String> index, String key) {
+        long position = index.getKeyIndex(key);
+        return position < 0 ? -position - 1 : position;
+    }
+
+    private void checkUnique(MVMap<String, String> index, String key, String id, String constraint) {
+        String owner = index.get(key);
+        if (owner != null && !owner.equals(id)) {
+            throw new DataIntegrityViolationException("Duplicate key violates unique constraint " + constraint);
+        }
+    }
+
+    private void addIndexes(ParkingSpotModel spot) {
+        String id = spot.getId().toString();
+        String condominiumId = spot.getCondominiumId();
+        byCondominium.put(key(condominiumId, id), id);
+        byLicensePlateCar.put(key(condominiumId, spot.getLicensePlateCar()), id);
+        byParkingSpotNumber.put(key(condominiumId, spot.getParkingSpotNumber()), id);
+        byApartmentAndBlock.put(key(condominiumId, spot.getApartment(), spot.getBlock(), id), id);
+    }
+
+    private void removeIndexes(ParkingSpotModel spot) {
+        String id = spot.getId().toString();
+        String condominiumId = spot.getCondominiumId();
+        byCondominium.remove(key(condominiumId, id));
+        byLicensePlateCar.remove(key(condominiumId, spot.getLicensePlateCar()), id);
+        byParkingSpotNumber.remove(key(condominiumId, spot.getParkingSpotNumber()), id);
+        byApartmentAndBlock.remove(key(condominiumId, spot.getApartment(), spot.getBlock(), id));
+    }
+
+    private void commit() {
+        store.commit();
+        if (syncOnCommit) {
+            store.sync();
+        }
+    }
+
+    /**
+     * Concatenates the parts as {@code length:value}, so no value can run into the next part and
+     * every key of a prefix sorts together.
+     */
+    static String key(String... parts) {
+        var key = new StringBuilder();
+        for (String part : parts) {
+            key.append(part.length()).append(':').append(part);
+        }
+        return key.toString();
+    }
+
+    static byte[] encode(ParkingSpotModel spot) {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, spot.getCondominiumId());
+            writeString(out, spot.getParkingSpotNumber());
+            writeString(out, spot.getLicensePlateCar());
+            writeString(out, spot.getBrandCar());
+            writeString(out, spot.getModelCar());
+            writeString(out, spot.getColorCar());
+            writeString(out, spot.getResponsibleName());
+            writeString(out, spot.getApartment());
+            writeString(out, spot.getBlock());
+            LocalDateTime registrationDate = spot.getRegistrationDate();
+            out.writeBoolean(registrationDate != null);
+            if (registrationDate != null) {
+                out.writeLong(registrationDate.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(registrationDate.getNano());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static ParkingSpotModel decode(String id, byte[] value) {
+        var spot = new ParkingSpotModel();
+        spot.setId(UUID.fromString(id));
+        try (var in = new DataInputStream(new ByteArrayInputStream(value))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported parking spot format " + version);
+            }
+            spot.setCondominiumId(readString(in));
+            spot.setParkingSpotNumber(readString(in));
+            spot.setLicensePlateCar(readString(in));
+            spot.setBrandCar(readString(in));
+            spot.setModelCar(readString(in));
+            spot.setColorCar(readString(in));
+            spot.setResponsibleName(readString(in));
+            spot.setApartment(readString(in));
+            spot.setBlock(readString(in));
+            if (in.readBoolean()) {
+                spot.setRegistrationDate(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return spot;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static <T> List<T> page(List<T> all, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return all;
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        return all.subList(from, Math.min(from + pageable.getPageSize(), all.size()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<ParkingSpotModel> comparator(Sort sort) {
+        Comparator<ParkingSpotModel> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<ParkingSpotModel> byProperty = Comparator.comparing(
+                    spot -> (Comparable) new BeanWrapperImpl(spot).getPropertyValue(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isDescending() ? byProperty.reversed() : byProperty);
+        }
+        return comparator;
+    }
+}
@@ -0,0 +1,40 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.OccupancyResolution;
+import com.api.parkingcontrol.models.OccupancySampleModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OccupancySampleRepository extends JpaRepository<OccupancySampleModel, UUID> {
+
+    List<OccupancySampleModel> findAllByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+            OccupancyResolution resolution, LocalDateTime from, LocalDateTime to);
+
+    Optional<OccupancySampleModel> findFirstByResolutionOrderByBucketStartDesc(OccupancyResolution resolution);
+
+    Optional<OccupancySampleModel> findFirstByResolutionOrderByBucketStartAsc(OccupancyResolution resolution);
+
+    Optional<OccupancySampleModel> findFirstByResolutionAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+            OccupancyResolution resolution, LocalDateTime from);
+
+    List<OccupancySampleModel> findAllByCondominiumIdAndBlockAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            String condominiumId, String block, OccupancyResolution resolution, LocalDateTime from, LocalDateTime to);
+
+    List<OccupancySampleModel> findAllByCondominiumIdAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBlockAscBucketStartAsc(
+            String condominiumId, OccupancyResolution resolution, LocalDateTime from, LocalDateTime to);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OccupancySampleModel s where s.resolution = :resolution and s.bucketStart < :before")
+    int deleteOlderThan(@Param("resolution") OccupancyResolution resolution, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,44 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.dtos.BillableSessionDTO;
+import com.api.parkingcontrol.models.ParkingSessionModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@Repository
+public interface ParkingSessionRepository extends JpaRepository<ParkingSessionModel, UUID> {
+
+    boolean existsByParkingSpotIdAndExitedAtIsNull(UUID parkingSpotId);
+
+    Optional<ParkingSessionModel> findByCondominiumIdAndParkingSpotIdAndId(String condominiumId, UUID parkingSpotId, UUID id);
+
+    /**
+     * Open sessions grouped by the block of the parking spot they occupy.
+     */
+    @Query("select p.condominiumId as condominiumId, p.block as block, count(s) as count " +
+            "from ParkingSessionModel s, ParkingSpotModel p where s.parkingSpotId = p.id and s.exitedAt is null " +
+            "group by p.condominiumId, p.block")
+    List<ParkingSpotRepository.BlockCount> countOpenByBlock();
+
+    /**
+     * Sessions that ended in {@code [from, to)}. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "5000"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.api.parkingcontrol.dtos.BillableSessionDTO(s.apartment, s.block, s.enteredAt, s.exitedAt) " +
+            "from ParkingSessionModel s where s.condominiumId = :condominiumId and s.exitedAt >= :from and s.exitedAt < :to")
+    Stream<BillableSessionDTO> streamBillable(@Param("condominiumId") String condominiumId,
+                                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
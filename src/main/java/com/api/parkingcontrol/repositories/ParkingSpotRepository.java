@@ -1,15 +1,54 @@
 package com.api.parkingcontrol.repositories;
 
 import com.api.parkingcontrol.models.ParkingSpotModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ParkingSpotRepository extends JpaRepository<ParkingSpotModel, UUID> {
 
-    boolean existsByLicensePlateCar(String licensePlateCar);
-    boolean existsByParkingSpotNumber(String parkingSpotNumber);
-    boolean existsByApartmentAndBlock(String apartment, String block);
+    boolean existsByCondominiumIdAndLicensePlateUnpacked(String condominiumId, String licensePlateUnpacked);
+    boolean existsByCondominiumIdAndLicensePlateCode(String condominiumId, Long licensePlateCode);
+    boolean existsByCondominiumIdAndParkingSpotNumber(String condominiumId, String parkingSpotNumber);
+    boolean existsByCondominiumIdAndApartmentAndBlock(String condominiumId, String apartment, String block);
+
+    Page<ParkingSpotModel> findAllByCondominiumId(String condominiumId, Pageable pageable);
+    Optional<ParkingSpotModel> findByCondominiumIdAndId(String condominiumId, UUID id);
+    List<ParkingSpotModel> findAllByCondominiumIdAndIdIn(String condominiumId, Collection<UUID> ids);
+
+    @Query("select p.parkingSpotNumber as parkingSpotNumber, p.licensePlateCar as licensePlateCar, " +
+            "p.apartment as apartment, p.block as block from ParkingSpotModel p where p.condominiumId = :condominiumId")
+    List<ParkingSpotKeys> findKeysByCondominiumId(@Param("condominiumId") String condominiumId);
+
+    @Query("select p.condominiumId as condominiumId, p.block as block, count(p) as count " +
+            "from ParkingSpotModel p group by p.condominiumId, p.block")
+    List<BlockCount> countByBlock();
+
+    /**
+     * The columns covered by the condominium's uniqueness rules.
+     */
+    interface ParkingSpotKeys {
+        String getParkingSpotNumber();
+        String getLicensePlateCar();
+        String getApartment();
+        String getBlock();
+    }
+
+    /**
+     * Number of parking spots (or of sessions on them) per condominium and block.
+     */
+    interface BlockCount {
+        String getCondominiumId();
+        String getBlock();
+        long getCount();
+    }
 }
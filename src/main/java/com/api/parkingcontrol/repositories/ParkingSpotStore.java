@@ -0,0 +1,38 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Storage of parking spots behind {@link com.api.parkingcontrol.services.ParkingSpotService}.
+ * {@link JpaParkingSpotStore} is the default; the {@code edge} profile swaps in
+ * {@link MvStoreParkingSpotStore} for sites that run without a database server.
+ */
+public interface ParkingSpotStore {
+
+    ParkingSpotModel save(ParkingSpotModel parkingSpotModel);
+
+    boolean existsByLicensePlateCar(String condominiumId, String licensePlateCar);
+
+    boolean existsByParkingSpotNumber(String condominiumId, String parkingSpotNumber);
+
+    boolean existsByApartmentAndBlock(String condominiumId, String apartment, String block);
+
+    Page<ParkingSpotModel> findAll(String condominiumId, Pageable pageable);
+
+    Optional<ParkingSpotModel> findById(String condominiumId, UUID id);
+
+    /**
+     * The spots of the condominium among {@code ids}, in no particular order; ids that do not
+     * exist (or belong to another condominium) are left out.
+     */
+    List<ParkingSpotModel> findAllById(String condominiumId, Collection<UUID> ids);
+
+    void delete(ParkingSpotModel parkingSpotModel);
+}
@@ -0,0 +1,21 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.VisitorReservationModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface VisitorReservationRepository extends JpaRepository<VisitorReservationModel, UUID> {
+
+    List<VisitorReservationModel> findAllByParkingSpotIdAndEndsAtAfterOrderByStartsAt(UUID parkingSpotId, LocalDateTime endsAfter);
+
+    List<VisitorReservationModel> findAllByCondominiumIdAndParkingSpotIdAndStartsAtBeforeAndEndsAtAfterOrderByStartsAt(
+            String condominiumId, UUID parkingSpotId, LocalDateTime startsBefore, LocalDateTime endsAfter);
+
+    Optional<VisitorReservationModel> findByCondominiumIdAndParkingSpotIdAndId(String condominiumId, UUID parkingSpotId, UUID id);
+}
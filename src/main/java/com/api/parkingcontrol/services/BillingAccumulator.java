@@ -0,0 +1,80 @@
+package com.api.parkingcontrol.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per apartment/block totals of one billing range, kept in parallel primitive arrays. Apartments and
+ * blocks are looked up in nested maps so adding a session does not allocate a composite key.
+ * Not thread-safe; each range has its own accumulator.
+ */
+class BillingAccumulator {
+
+    private final Map<String, Map<String, Integer>> slots = new HashMap<>();
+    private String[] apartments = new String[64];
+    private String[] blocks = new String[64];
+    private long[] sessions = new long[64];
+    private long[] billedMinutes = new long[64];
+    private long[] amountCents = new long[64];
+    private int size;
+
+    void add(String apartment, String block, long minutes, long cents) {
+        int slot = slot(apartment, block);
+        sessions[slot]++;
+        billedMinutes[slot] += minutes;
+        amountCents[slot] += cents;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String apartment(int slot) {
+        return apartments[slot];
+    }
+
+    String block(int slot) {
+        return blocks[slot];
+    }
+
+    long sessions(int slot) {
+        return sessions[slot];
+    }
+
+    long billedMinutes(int slot) {
+        return billedMinutes[slot];
+    }
+
+    long amountCents(int slot) {
+        return amountCents[slot];
+    }
+
+    long totalSessions() {
+        long total = 0;
+        for (int slot = 0; slot < size; slot++) {
+            total += sessions[slot];
+        }
+        return total;
+    }
+
+    private int slot(String apartment, String block) {
+        Map<String, Integer> byBlock = slots.computeIfAbsent(apartment, key -> new HashMap<>());
+        Integer slot = byBlock.get(block);
+        if (slot != null) {
+            return slot;
+        }
+        if (size == sessions.length) {
+            int capacity = size * 2;
+            apartments = Arrays.copyOf(apartments, capacity);
+            blocks = Arrays.copyOf(blocks, capacity);
+            sessions = Arrays.copyOf(sessions, capacity);
+            billedMinutes = Arrays.copyOf(billedMinutes, capacity);
+            amountCents = Arrays.copyOf(amountCents, capacity);
+        }
+        apartments[size] = apartment;
+        blocks[size] = block;
+        byBlock.put(block, size);
+        return size++;
+    }
+}
@@ -0,0 +1,96 @@
+package com.api.parkingcontrol.services;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * State of one background billing run. Updated by the billing run thread and read by the status endpoint.
+ */
+public class BillingRun {
+
+    public enum Status {QUEUED, RUNNING, COMPLETED, FAILED}
+
+    private final UUID id = UUID.randomUUID();
+    private final String condominiumId;
+    private final String billingMonth;
+    private final boolean restart;
+    private final LocalDateTime createdAt = now();
+    private volatile Status status = Status.QUEUED;
+    private volatile BillingRunResult result;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failureMessage;
+
+    public BillingRun(String condominiumId, String billingMonth, boolean restart) {
+        this.condominiumId = condominiumId;
+        this.billingMonth = billingMonth;
+        this.restart = restart;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void complete(BillingRunResult result) {
+        this.result = result;
+        finishedAt = now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        failureMessage = message;
+        finishedAt = now();
+        status = Status.FAILED;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public String getCondominiumId() {
+        return condominiumId;
+    }
+
+    public String getBillingMonth() {
+        return billingMonth;
+    }
+
+    public boolean isRestart() {
+        return restart;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    /**
+     * @return the summary of the run once it completed, otherwise {@code null}
+     */
+    public BillingRunResult getResult() {
+        return result;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("UTC"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.api.parkingcontrol.services;
+
+/**
+ * Summary of a billing run, returned by the billing endpoint.
+ */
+public class BillingRunResult {
+
+    private final String billingMonth;
+    private final int ranges;
+    private final int rangesSkipped;
+    private final long sessions;
+    private final int invoices;
+    private final long amountCents;
+    private final long elapsedMillis;
+
+    public BillingRunResult(String billingMonth, int ranges, int rangesSkipped, long sessions,
+                            int invoices, long amountCents, long elapsedMillis) {
+        this.billingMonth = billingMonth;
+        this.ranges = ranges;
+        this.rangesSkipped = rangesSkipped;
+        this.sessions = sessions;
+        this.invoices = invoices;
+        this.amountCents = amountCents;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getBillingMonth() {
+        return billingMonth;
+    }
+
+    public int getRanges() {
+        return ranges;
+    }
+
+    /**
+     * Ranges already checkpointed by an earlier, interrupted run.
+     */
+    public int getRangesSkipped() {
+        return rangesSkipped;
+    }
+
+    /**
+     * Sessions priced by this run; sessions of skipped ranges are not counted again.
+     */
+    public long getSessions() {
+        return sessions;
+    }
+
+    public int getInvoices() {
+        return invoices;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,338 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.dtos.BillableSessionDTO;
+import com.api.parkingcontrol.models.BillingCheckpointModel;
+import com.api.parkingcontrol.models.BillingPartialModel;
+import com.api.parkingcontrol.models.InvoiceModel;
+import com.api.parkingcontrol.repositories.BillingCheckpointRepository;
+import com.api.parkingcontrol.repositories.BillingPartialRepository;
+import com.api.parkingcontrol.repositories.InvoiceRepository;
+import com.api.parkingcontrol.repositories.ParkingSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Computes a month of parking fees per apartment/block. The month is split into one range per local
+ * day; ranges are priced in parallel, each streaming its finished sessions into a primitive
+ * accumulator and storing the totals together with a checkpoint in one transaction. A run that is
+ * interrupted can simply be started again: checkpointed ranges are skipped, and the invoices are
+ * rebuilt from the stored totals at the end of every run.
+ * <p>
+ * Runs are queued and executed one at a time on a background thread; callers poll them by id.
+ */
+@Service
+@Profile("!edge")
+public class BillingService {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingService.class);
+
+    final ParkingSessionRepository parkingSessionRepository;
+    final BillingPartialRepository billingPartialRepository;
+    final BillingCheckpointRepository billingCheckpointRepository;
+    final InvoiceRepository invoiceRepository;
+    private final BillingTariff tariff;
+    private final ZoneId zone;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final int maxQueued;
+    private final ExecutorService runExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "billing-run"));
+    private final BoundedTtlCache<UUID, BillingRun> runs;
+    private final Map<String, BillingRun> activeRuns = new HashMap<>();
+
+    public BillingService(ParkingSessionRepository parkingSessionRepository,
+                          BillingPartialRepository billingPartialRepository,
+                          BillingCheckpointRepository billingCheckpointRepository,
+                          InvoiceRepository invoiceRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${parking-control.billing.free-minutes:15}") int freeMinutes,
+                          @Value("${parking-control.billing.day-rate-cents:800}") long dayRateCents,
+                          @Value("${parking-control.billing.night-rate-cents:400}") long nightRateCents,
+                          @Value("${parking-control.billing.night-start:22:00}") String nightStart,
+                          @Value("${parking-control.billing.night-end:06:00}") String nightEnd,
+                          @Value("${parking-control.billing.daily-cap-cents:5000}") long dailyCapCents,
+                          @Value("${parking-control.billing.zone:America/Sao_Paulo}") ZoneId zone,
+                          @Value("${parking-control.billing.parallelism:0}") int parallelism,
+                          @Value("${parking-control.billing.batch-size:1000}") int batchSize,
+                          @Value("${parking-control.billing.max-queued:20}") int maxQueued,
+                          @Value("${parking-control.billing.run-ttl:24h}") Duration runTtl) {
+        this.parkingSessionRepository = parkingSessionRepository;
+        this.billingPartialRepository = billingPartialRepository;
+        this.billingCheckpointRepository = billingCheckpointRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.tariff = new BillingTariff(freeMinutes, dayRateCents, nightRateCents,
+                LocalTime.parse(nightStart), LocalTime.parse(nightEnd), dailyCapCents);
+        this.zone = zone;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.batchSize = batchSize;
+        this.maxQueued = maxQueued;
+        this.runs = new BoundedTtlCache<>(100, runTtl, Clock.systemUTC(), BillingRun::isFinished);
+    }
+
+    /**
+     * Queues the billing of a finished month. While a run of the same condominium and month is queued
+     * or running, that run is returned instead of queuing another one.
+     *
+     * @param restart discards the checkpoints of earlier runs, e.g. after sessions were corrected
+     * @throws JobQueueFullException when {@code max-queued} runs are already waiting or running
+     */
+    public BillingRun startRun(String condominiumId, YearMonth month, boolean restart) {
+        String key = condominiumId + '|' + month;
+        BillingRun billingRun;
+        synchronized (activeRuns) {
+            BillingRun active = activeRuns.get(key);
+            if (active != null) {
+                return active;
+            }
+            if (activeRuns.size() >= maxQueued) {
+                throw new JobQueueFullException("billing runs", maxQueued);
+            }
+            billingRun = new BillingRun(condominiumId, month.toString(), restart);
+            activeRuns.put(key, billingRun);
+            runs.put(billingRun.getId(), billingRun);
+        }
+        try {
+            runExecutor.execute(() -> execute(key, billingRun, month));
+        } catch (RuntimeException e) {
+            finish(key);
+            throw e;
+        }
+        return billingRun;
+    }
+
+    public Optional<BillingRun> findRun(String condominiumId, UUID id) {
+        return Optional.ofNullable(runs.get(id)).filter(billingRun -> billingRun.getCondominiumId().equals(condominiumId));
+    }
+
+    private void execute(String key, BillingRun billingRun, YearMonth month) {
+        billingRun.start();
+        BillingRunResult result = null;
+        String failureMessage = null;
+        try {
+            result = run(billingRun.getCondominiumId(), month, billingRun.isRestart());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failureMessage = "Billing run interrupted";
+        } catch (RuntimeException e) {
+            log.warn("Billing run {} failed", billingRun.getId(), e);
+            failureMessage = e.getMessage();
+        } finally {
+//            Released before the run reports finished, so a poller that sees it finished can start the next one.
+            finish(key);
+        }
+        if (result != null) {
+            billingRun.complete(result);
+        } else {
+            billingRun.fail(failureMessage);
+        }
+    }
+
+    private void finish(String key) {
+        synchronized (activeRuns) {
+            activeRuns.remove(key);
+        }
+    }
+
+    /**
+     * Bills a finished month on the calling thread. Within this instance only the billing run thread
+     * calls it, so runs never overlap; a range checkpointed first by another instance is skipped.
+     */
+    BillingRunResult run(String condominiumId, YearMonth month, boolean restart) throws InterruptedException {
+        String billingMonth = month.toString();
+        long start = System.nanoTime();
+        if (restart) {
+            writeTransaction.executeWithoutResult(status -> {
+                billingCheckpointRepository.deleteByMonth(condominiumId, billingMonth);
+                billingPartialRepository.deleteByMonth(condominiumId, billingMonth);
+            });
+        }
+
+        Set<LocalDateTime> done = new HashSet<>(billingCheckpointRepository.findRangeStarts(condominiumId, billingMonth));
+        List<Callable<Long>> ranges = new ArrayList<>();
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            LocalDateTime from = toUtc(month.atDay(day).atStartOfDay(zone).toInstant());
+            LocalDateTime to = toUtc(month.atDay(day).plusDays(1).atStartOfDay(zone).toInstant());
+            if (!done.contains(from)) {
+                ranges.add(() -> billRange(condominiumId, billingMonth, from, to));
+            }
+        }
+
+        long sessions = 0;
+        RuntimeException failure = null;
+        for (Future<Long> range : pool.invokeAll(ranges)) {
+            try {
+                sessions += range.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause()
+                            : new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+//            The ranges that succeeded are checkpointed; running again resumes from the others.
+            throw failure;
+        }
+
+        long[] invoiceTotals = writeInvoices(condominiumId, billingMonth);
+        return new BillingRunResult(billingMonth, month.lengthOfMonth(), done.size(), sessions,
+                (int) invoiceTotals[0], invoiceTotals[1], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<InvoiceModel> findInvoices(String condominiumId, String billingMonth, Pageable pageable) {
+        return invoiceRepository.findAllByCondominiumIdAndBillingMonth(condominiumId, billingMonth, pageable);
+    }
+
+    /**
+     * @return whether every day of the month is over in the billing time zone
+     */
+    public boolean isFinished(YearMonth month) {
+        return !month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant().isAfter(Instant.now());
+    }
+
+    /**
+     * @return the number of sessions priced, or 0 if another run checkpointed the range first
+     */
+    long billRange(String condominiumId, String billingMonth, LocalDateTime from, LocalDateTime to) {
+        var accumulator = new BillingAccumulator();
+        ZoneRules rules = zone.getRules();
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<BillableSessionDTO> sessions = parkingSessionRepository.streamBillable(condominiumId, from, to)) {
+                sessions.forEach(session -> {
+                    long entered = localMinute(session.getEnteredAt(), rules);
+                    long exited = localMinute(session.getExitedAt(), rules);
+                    accumulator.add(session.getApartment(), session.getBlock(),
+                            tariff.billedMinutes(entered, exited), tariff.charge(entered, exited));
+                });
+            }
+        });
+
+        List<BillingPartialModel> partials = new ArrayList<>(accumulator.size());
+        for (int slot = 0; slot < accumulator.size(); slot++) {
+            var partial = new BillingPartialModel();
+            partial.setCondominiumId(condominiumId);
+            partial.setBillingMonth(billingMonth);
+            partial.setRangeStart(from);
+            partial.setApartment(accumulator.apartment(slot));
+            partial.setBlock(accumulator.block(slot));
+            partial.setSessions(accumulator.sessions(slot));
+            partial.setBilledMinutes(accumulator.billedMinutes(slot));
+            partial.setAmountCents(accumulator.amountCents(slot));
+            partials.add(partial);
+        }
+        var checkpoint = new BillingCheckpointModel();
+        checkpoint.setCondominiumId(condominiumId);
+        checkpoint.setBillingMonth(billingMonth);
+        checkpoint.setRangeStart(from);
+        checkpoint.setSessions(accumulator.totalSessions());
+        checkpoint.setCompletedAt(LocalDateTime.now(ZoneId.of("UTC")));
+
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                billingCheckpointRepository.saveAndFlush(checkpoint);
+                for (int i = 0; i < partials.size(); i += batchSize) {
+                    billingPartialRepository.saveAllAndFlush(partials.subList(i, Math.min(i + batchSize, partials.size())));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            return 0;
+        }
+        return accumulator.totalSessions();
+    }
+
+    /**
+     * Replaces the month's invoices with the sums of its stored partials.
+     *
+     * @return the number of invoices and their total amount in cents
+     */
+    private long[] writeInvoices(String condominiumId, String billingMonth) {
+        List<BillingPartialRepository.BillingTotals> totals = billingPartialRepository.sumByApartmentAndBlock(condominiumId, billingMonth);
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+        long[] result = new long[2];
+        writeTransaction.executeWithoutResult(status -> {
+            invoiceRepository.deleteByMonth(condominiumId, billingMonth);
+            List<InvoiceModel> batch = new ArrayList<>(batchSize);
+            for (BillingPartialRepository.BillingTotals total : totals) {
+                var invoice = new InvoiceModel();
+                invoice.setCondominiumId(condominiumId);
+                invoice.setBillingMonth(billingMonth);
+                invoice.setApartment(total.getApartment());
+                invoice.setBlock(total.getBlock());
+                invoice.setSessions(total.getSessions());
+                invoice.setBilledMinutes(total.getBilledMinutes());
+                invoice.setAmountCents(total.getAmountCents());
+                invoice.setRegistrationDate(now);
+                batch.add(invoice);
+                result[0]++;
+                result[1] += total.getAmountCents();
+                if (batch.size() == batchSize) {
+                    invoiceRepository.saveAllAndFlush(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                invoiceRepository.saveAllAndFlush(batch);
+            }
+        });
+        return result;
+    }
+
+    private static long localMinute(LocalDateTime utc, ZoneRules rules) {
+        long epochSecond = utc.toEpochSecond(ZoneOffset.UTC);
+        int offsetSeconds = rules.isFixedOffset()
+                ? rules.getOffset(Instant.EPOCH).getTotalSeconds()
+                : rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        return Math.floorDiv(epochSecond + offsetSeconds, 60);
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runExecutor.shutdownNow();
+        pool.shutdownNow();
+    }
+}
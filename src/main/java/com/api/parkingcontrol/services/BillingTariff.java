@@ -0,0 +1,82 @@
+package com.api.parkingcontrol.services;
+
+import java.time.LocalTime;
+
+/**
+ * Prices a parking stay. Stays up to {@code freeMinutes} are free and longer stays have those minutes
+ * deducted from their start. The rest is prorated by the minute at the day or night hourly rate, and
+ * each 24-hour period from the start of the charge is capped at {@code dailyCapCents} (0 = no cap).
+ * <p>
+ * Times are minutes since the epoch in the condominium's local time, so that night hours follow the
+ * wall clock; all arithmetic is on primitives because a billing run prices millions of stays.
+ */
+public class BillingTariff {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int freeMinutes;
+    private final long dayRateCents;
+    private final long nightRateCents;
+    private final int nightStart;
+    private final int nightEnd;
+    private final long dailyCapCents;
+    private final int nightMinutesPerDay;
+
+    public BillingTariff(int freeMinutes, long dayRateCents, long nightRateCents,
+                         LocalTime nightStart, LocalTime nightEnd, long dailyCapCents) {
+        this.freeMinutes = freeMinutes;
+        this.dayRateCents = dayRateCents;
+        this.nightRateCents = nightRateCents;
+        this.nightStart = nightStart.getHour() * 60 + nightStart.getMinute();
+        this.nightEnd = nightEnd.getHour() * 60 + nightEnd.getMinute();
+        this.dailyCapCents = dailyCapCents;
+        this.nightMinutesPerDay = nightMinutesOfDayBefore(MINUTES_PER_DAY);
+    }
+
+    /**
+     * @return minutes of the stay that are charged
+     */
+    public long billedMinutes(long enteredMinute, long exitedMinute) {
+        long duration = exitedMinute - enteredMinute;
+        return duration <= freeMinutes ? 0 : duration - freeMinutes;
+    }
+
+    /**
+     * @return the fee in cents for a stay between the two local epoch minutes
+     */
+    public long charge(long enteredMinute, long exitedMinute) {
+        if (exitedMinute - enteredMinute <= freeMinutes) {
+            return 0;
+        }
+        long total = 0;
+        for (long periodStart = enteredMinute + freeMinutes; periodStart < exitedMinute; periodStart += MINUTES_PER_DAY) {
+            long periodEnd = Math.min(periodStart + MINUTES_PER_DAY, exitedMinute);
+            long night = nightMinutesBefore(periodEnd) - nightMinutesBefore(periodStart);
+            long day = periodEnd - periodStart - night;
+            long cents = ceilDiv(day * dayRateCents + night * nightRateCents, 60);
+            total += dailyCapCents > 0 ? Math.min(cents, dailyCapCents) : cents;
+        }
+        return total;
+    }
+
+    /**
+     * Night minutes in {@code [0, minute)}: whole days contribute a fixed amount, so any interval's
+     * night minutes are the difference of two of these, in constant time.
+     */
+    private long nightMinutesBefore(long minute) {
+        long days = Math.floorDiv(minute, MINUTES_PER_DAY);
+        int minuteOfDay = (int) Math.floorMod(minute, MINUTES_PER_DAY);
+        return days * nightMinutesPerDay + nightMinutesOfDayBefore(minuteOfDay);
+    }
+
+    private int nightMinutesOfDayBefore(int minuteOfDay) {
+        if (nightStart > nightEnd) {
+            return Math.min(minuteOfDay, nightEnd) + Math.max(0, minuteOfDay - nightStart);
+        }
+        return Math.max(0, Math.min(minuteOfDay, nightEnd) - nightStart);
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+}
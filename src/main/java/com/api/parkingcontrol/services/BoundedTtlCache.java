@@ -0,0 +1,79 @@
+package com.api.parkingcontrol.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Small LRU map whose entries also expire after a fixed time to live.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Predicate<? super V> evictable;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public BoundedTtlCache(int maxEntries, Duration ttl, Clock clock) {
+        this(maxEntries, ttl, clock, value -> true);
+    }
+
+    /**
+     * @param evictable whether an entry may be expired or evicted; entries it rejects are kept until
+     *                  removed or until they become evictable, and may push the map past {@code maxEntries}
+     */
+    public BoundedTtlCache(int maxEntries, Duration ttl, Clock clock, Predicate<? super V> evictable) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.evictable = evictable;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= clock.millis() && evictable.test(entry.value)) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+        evict();
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            if (evictable.test(iterator.next().value)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAtMillis;
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
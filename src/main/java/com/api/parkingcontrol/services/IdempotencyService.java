@@ -0,0 +1,241 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.IdempotencyRecordModel;
+import com.api.parkingcontrol.repositories.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracks Idempotency-Keys. Completed responses live in a bounded in-memory cache and, when a
+ * repository is given, in TB_IDEMPOTENCY_KEY so other instances can replay them too. A request
+ * whose key is already executing waits for that execution instead of running again.
+ */
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final BoundedTtlCache<String, IdempotentResponse> completed;
+    private final Map<String, CompletableFuture<IdempotentResponse>> inflight = new ConcurrentHashMap<>();
+    private final Map<String, IdempotencyRecordModel> claims = new ConcurrentHashMap<>();
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration executionTimeout;
+    private final Clock clock;
+
+    /**
+     * @param repository       optional; {@code null} keeps keys in memory only
+     * @param waitTimeout      how long a duplicate waits for the first execution before answering 409
+     * @param executionTimeout after how long an unfinished persisted execution is considered dead and taken over
+     */
+    public IdempotencyService(IdempotencyRecordRepository repository, int maxEntries, Duration ttl,
+                              Duration waitTimeout, Duration executionTimeout, Clock clock) {
+        this.completed = new BoundedTtlCache<>(maxEntries, ttl, clock);
+        this.repository = repository;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.executionTimeout = executionTimeout;
+        this.clock = clock;
+    }
+
+    public Outcome begin(String key, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            IdempotentResponse cached = completed.get(key);
+            if (cached != null) {
+                return Outcome.replay(cached, requestHash);
+            }
+
+            CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inflight.putIfAbsent(key, execution);
+            if (running != null) {
+                IdempotentResponse response = await(running, deadline);
+                if (response != null) {
+                    return Outcome.replay(response, requestHash);
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    return Outcome.inProgress();
+                }
+                continue;
+            }
+
+            if (repository == null) {
+                return Outcome.proceed();
+            }
+            Outcome outcome;
+            try {
+                outcome = claimPersisted(key, requestHash, deadline);
+            } catch (RuntimeException e) {
+//                Nobody will complete or abandon this execution, so release the key before failing.
+                inflight.remove(key, execution);
+                execution.complete(null);
+                throw e;
+            }
+            if (outcome.getType() != Outcome.Type.PROCEED) {
+                inflight.remove(key, execution);
+                execution.complete(outcome.getResponse());
+            }
+            return outcome;
+        }
+    }
+
+    public void complete(String key, IdempotentResponse response) {
+        completed.put(key, response);
+        CompletableFuture<IdempotentResponse> execution = inflight.remove(key);
+        if (execution != null) {
+            execution.complete(response);
+        }
+        IdempotencyRecordModel claim = claims.remove(key);
+        if (claim != null && repository.complete(key, claim.getCreatedAt(), response.getStatus(), response.getContentType(),
+                response.getBody(), now().plus(ttl)) == 0) {
+            log.warn("Idempotency-Key {} was taken over by another execution before completing; its record was kept", key);
+        }
+    }
+
+    /**
+     * Forgets a key whose execution failed, so a retry runs the request again.
+     */
+    public void abandon(String key) {
+        CompletableFuture<IdempotentResponse> execution = inflight.remove(key);
+        if (execution != null) {
+            execution.complete(null);
+        }
+        IdempotencyRecordModel claim = claims.remove(key);
+        if (claim != null) {
+//            A no-op when the claim already expired or was taken over.
+            repository.deleteClaim(key, claim.getCreatedAt(), claim.getRequestHash());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${parking-control.idempotency.cleanup-interval:PT5M}")
+    public void deleteExpired() {
+        if (repository != null) {
+            repository.deleteExpired(now());
+        }
+    }
+
+    private Outcome claimPersisted(String key, String requestHash, long deadline) {
+        while (true) {
+            Optional<IdempotencyRecordModel> existing = repository.findById(key);
+            if (existing.isPresent()) {
+                IdempotencyRecordModel record = existing.get();
+                if (record.isCompleted() && record.getExpiresAt().isAfter(now())) {
+                    IdempotentResponse response = toResponse(record);
+                    completed.put(key, response);
+                    return Outcome.replay(response, requestHash);
+                }
+                if (!record.isCompleted() && record.getCreatedAt().plus(executionTimeout).isAfter(now())) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        return Outcome.inProgress();
+                    }
+                    sleep();
+                    continue;
+                }
+                if (repository.deleteClaim(key, record.getCreatedAt(), record.getRequestHash()) == 0) {
+                    // another instance replaced the stale record first; read its claim
+                    continue;
+                }
+            }
+
+            try {
+                IdempotencyRecordModel claim = inProgress(key, requestHash);
+                repository.saveAndFlush(claim);
+                claims.put(key, claim);
+                return Outcome.proceed();
+            } catch (DataIntegrityViolationException e) {
+                // another instance claimed it first; wait for its result
+            }
+        }
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> running, long deadline) {
+        try {
+            return running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private IdempotencyRecordModel inProgress(String key, String requestHash) {
+        var record = new IdempotencyRecordModel();
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setCompleted(false);
+//        Stored at millisecond precision on every database, so the guarded update/delete match it exactly.
+        record.setCreatedAt(now().truncatedTo(ChronoUnit.MILLIS));
+        record.setExpiresAt(now().plus(ttl));
+        return record;
+    }
+
+    private IdempotentResponse toResponse(IdempotencyRecordModel record) {
+        return new IdempotentResponse(record.getResponseStatus(), record.getContentType(), record.getResponseBody(), record.getRequestHash());
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static final class Outcome {
+
+        public enum Type {PROCEED, REPLAY, IN_PROGRESS, MISMATCH}
+
+        private final Type type;
+        private final IdempotentResponse response;
+
+        private Outcome(Type type, IdempotentResponse response) {
+            this.type = type;
+            this.response = response;
+        }
+
+        static Outcome proceed() {
+            return new Outcome(Type.PROCEED, null);
+        }
+
+        static Outcome inProgress() {
+            return new Outcome(Type.IN_PROGRESS, null);
+        }
+
+        static Outcome replay(IdempotentResponse response, String requestHash) {
+            return response.getRequestHash().equals(requestHash)
+                    ? new Outcome(Type.REPLAY, response)
+                    : new Outcome(Type.MISMATCH, response);
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public IdempotentResponse getResponse() {
+            return response;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.api.parkingcontrol.services;
+
+/**
+ * A response recorded for an Idempotency-Key, replayed as is for retries of the same request.
+ */
+public class IdempotentResponse {
+
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    private final String requestHash;
+
+    public IdempotentResponse(int status, String contentType, byte[] body, String requestHash) {
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.requestHash = requestHash;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+}
@@ -0,0 +1,12 @@
+package com.api.parkingcontrol.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(String jobs, int maxQueued) {
+        super(maxQueued + " " + jobs + " are already queued or running");
+    }
+}
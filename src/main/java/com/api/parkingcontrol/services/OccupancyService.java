@@ -0,0 +1,258 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.OccupancyResolution;
+import com.api.parkingcontrol.models.OccupancySampleModel;
+import com.api.parkingcontrol.repositories.OccupancySampleRepository;
+import com.api.parkingcontrol.repositories.ParkingSessionRepository;
+import com.api.parkingcontrol.repositories.ParkingSpotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Occupancy history per block. Every minute the open sessions are counted per block and stored as
+ * MINUTE samples; a compaction job rolls finished hours into HOUR buckets and finished days into DAY
+ * buckets, and drops each level once it is older than its retention. Queries read a single level, so
+ * long ranges are served from the coarse buckets only. Buckets are UTC; the current hour and day
+ * appear in the coarse levels once they are over.
+ */
+@Service
+@Profile("!edge")
+public class OccupancyService {
+
+    /**
+     * Upper bound of points a single history query may return.
+     */
+    public static final long MAX_POINTS = 10_000;
+
+    final OccupancySampleRepository occupancySampleRepository;
+    final ParkingSpotRepository parkingSpotRepository;
+    final ParkingSessionRepository parkingSessionRepository;
+    private final Map<OccupancyResolution, Duration> retention = new EnumMap<>(OccupancyResolution.class);
+    private final Duration minuteMaxRange;
+    private final Duration hourMaxRange;
+    private final int maxBucketsPerRun;
+
+    public OccupancyService(OccupancySampleRepository occupancySampleRepository,
+                            ParkingSpotRepository parkingSpotRepository,
+                            ParkingSessionRepository parkingSessionRepository,
+                            @Value("${parking-control.occupancy.retention.minute:7d}") Duration minuteRetention,
+                            @Value("${parking-control.occupancy.retention.hour:400d}") Duration hourRetention,
+                            @Value("${parking-control.occupancy.retention.day:3650d}") Duration dayRetention,
+                            @Value("${parking-control.occupancy.auto.minute-max-range:1d}") Duration minuteMaxRange,
+                            @Value("${parking-control.occupancy.auto.hour-max-range:62d}") Duration hourMaxRange,
+                            @Value("${parking-control.occupancy.compaction.max-buckets:168}") int maxBucketsPerRun) {
+        this.occupancySampleRepository = occupancySampleRepository;
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.parkingSessionRepository = parkingSessionRepository;
+        this.retention.put(OccupancyResolution.MINUTE, minuteRetention);
+        this.retention.put(OccupancyResolution.HOUR, hourRetention);
+        this.retention.put(OccupancyResolution.DAY, dayRetention);
+        this.minuteMaxRange = minuteMaxRange;
+        this.hourMaxRange = hourMaxRange;
+        this.maxBucketsPerRun = maxBucketsPerRun;
+    }
+
+    @Scheduled(cron = "${parking-control.occupancy.sample-cron:0 * * * * *}", zone = "UTC")
+    public void sample() {
+        sample(now());
+    }
+
+    @Scheduled(cron = "${parking-control.occupancy.compaction-cron:30 5 * * * *}", zone = "UTC")
+    public void compact() {
+        compact(now());
+    }
+
+    /**
+     * Stores one MINUTE sample per block, including blocks with no car parked.
+     *
+     * @return the number of samples written, 0 if the minute was already sampled by another instance
+     */
+    int sample(LocalDateTime now) {
+        LocalDateTime bucket = OccupancyResolution.MINUTE.truncate(now);
+        Map<String, OccupancySampleModel> samples = new LinkedHashMap<>();
+        for (ParkingSpotRepository.BlockCount spots : parkingSpotRepository.countByBlock()) {
+            OccupancySampleModel sample = newSample(spots.getCondominiumId(), spots.getBlock(), OccupancyResolution.MINUTE, bucket);
+            sample.setSamples(1);
+            sample.setTotalSpots((int) spots.getCount());
+            samples.put(key(spots.getCondominiumId(), spots.getBlock()), sample);
+        }
+        for (ParkingSpotRepository.BlockCount open : parkingSessionRepository.countOpenByBlock()) {
+            OccupancySampleModel sample = samples.get(key(open.getCondominiumId(), open.getBlock()));
+            if (sample != null) {
+                int occupied = (int) open.getCount();
+                sample.setOccupiedSum(occupied);
+                sample.setOccupiedMin(occupied);
+                sample.setOccupiedMax(occupied);
+            }
+        }
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        try {
+            occupancySampleRepository.saveAllAndFlush(samples.values());
+        } catch (DataIntegrityViolationException e) {
+            return 0;
+        }
+        return samples.size();
+    }
+
+    /**
+     * Rolls finished hours and days up and applies the retention of every level.
+     */
+    void compact(LocalDateTime now) {
+        LocalDateTime hoursComplete = rollUp(OccupancyResolution.MINUTE, OccupancyResolution.HOUR, now);
+        rollUp(OccupancyResolution.HOUR, OccupancyResolution.DAY, hoursComplete);
+        for (Map.Entry<OccupancyResolution, Duration> level : retention.entrySet()) {
+            occupancySampleRepository.deleteOlderThan(level.getKey(), now.minus(level.getValue()));
+        }
+    }
+
+    /**
+     * Builds the {@code target} buckets that are not built yet from the {@code source} level, resuming
+     * after the latest {@code target} bucket. Only buckets that end by {@code sourceComplete} are built,
+     * so a coarser level never aggregates a source level that is still being caught up. At most
+     * {@code maxBucketsPerRun} buckets are built per call, so a long outage is caught up over several runs.
+     *
+     * @param sourceComplete the time up to which the {@code source} level is final
+     * @return the time up to which the {@code target} level is final after this call
+     */
+    LocalDateTime rollUp(OccupancyResolution source, OccupancyResolution target, LocalDateTime sourceComplete) {
+        Duration step = target.getDuration();
+        LocalDateTime until = target.truncate(sourceComplete);
+        Optional<LocalDateTime> next = occupancySampleRepository.findFirstByResolutionOrderByBucketStartDesc(target)
+                .map(latest -> latest.getBucketStart().plus(step))
+                .or(() -> occupancySampleRepository.findFirstByResolutionOrderByBucketStartAsc(source)
+                        .map(first -> target.truncate(first.getBucketStart())));
+
+        int built = 0;
+        while (next.isPresent()) {
+            LocalDateTime bucket = next.get();
+            if (bucket.plus(step).isAfter(until)) {
+                break;
+            }
+            if (built == maxBucketsPerRun) {
+                return bucket;
+            }
+            List<OccupancySampleModel> rows = occupancySampleRepository
+                    .findAllByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThan(source, bucket, bucket.plus(step));
+            if (rows.isEmpty()) {
+//                Nothing was sampled in this bucket (e.g. the application was down): jump to the next data.
+                next = firstSourceBucket(source, target, bucket.plus(step));
+                continue;
+            }
+            try {
+                occupancySampleRepository.saveAllAndFlush(aggregate(rows, target, bucket));
+            } catch (DataIntegrityViolationException e) {
+//                Another instance is compacting the same buckets.
+                return bucket;
+            }
+            built++;
+            next = Optional.of(bucket.plus(step));
+        }
+        return until;
+    }
+
+    /**
+     * Merges the samples of one bucket per condominium and block.
+     */
+    static List<OccupancySampleModel> aggregate(List<OccupancySampleModel> rows, OccupancyResolution resolution, LocalDateTime bucket) {
+        Map<String, OccupancySampleModel> merged = new LinkedHashMap<>();
+        for (OccupancySampleModel row : rows) {
+            OccupancySampleModel target = merged.get(key(row.getCondominiumId(), row.getBlock()));
+            if (target == null) {
+                target = newSample(row.getCondominiumId(), row.getBlock(), resolution, bucket);
+                target.setOccupiedMin(row.getOccupiedMin());
+                target.setOccupiedMax(row.getOccupiedMax());
+                merged.put(key(row.getCondominiumId(), row.getBlock()), target);
+            }
+            target.setOccupiedSum(target.getOccupiedSum() + row.getOccupiedSum());
+            target.setSamples(target.getSamples() + row.getSamples());
+            target.setOccupiedMin(Math.min(target.getOccupiedMin(), row.getOccupiedMin()));
+            target.setOccupiedMax(Math.max(target.getOccupiedMax(), row.getOccupiedMax()));
+            target.setTotalSpots(Math.max(target.getTotalSpots(), row.getTotalSpots()));
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * @param block {@code null} for every block of the condominium
+     */
+    @Transactional(readOnly = true)
+    public List<OccupancySampleModel> findHistory(String condominiumId, String block, LocalDateTime from, LocalDateTime to,
+                                                  OccupancyResolution resolution) {
+        if (block == null) {
+            return occupancySampleRepository
+                    .findAllByCondominiumIdAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBlockAscBucketStartAsc(
+                            condominiumId, resolution, resolution.truncate(from), to);
+        }
+        return occupancySampleRepository
+                .findAllByCondominiumIdAndBlockAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+                        condominiumId, block, resolution, resolution.truncate(from), to);
+    }
+
+    /**
+     * The finest level that is still retained at {@code from} and whose range limit covers the
+     * query; ranges longer than {@code hourMaxRange} always read DAY buckets.
+     */
+    public OccupancyResolution resolve(LocalDateTime from, LocalDateTime to) {
+        return resolve(from, to, now());
+    }
+
+    OccupancyResolution resolve(LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        Duration range = Duration.between(from, to);
+        if (range.compareTo(minuteMaxRange) <= 0 && isRetained(OccupancyResolution.MINUTE, from, now)) {
+            return OccupancyResolution.MINUTE;
+        }
+        if (range.compareTo(hourMaxRange) <= 0 && isRetained(OccupancyResolution.HOUR, from, now)) {
+            return OccupancyResolution.HOUR;
+        }
+        return OccupancyResolution.DAY;
+    }
+
+    /**
+     * @return whether a query over {@code [from, to)} at this resolution stays within {@link #MAX_POINTS} per block
+     */
+    public boolean isWithinPointLimit(LocalDateTime from, LocalDateTime to, OccupancyResolution resolution) {
+        return Duration.between(from, to).dividedBy(resolution.getDuration()) <= MAX_POINTS;
+    }
+
+    private boolean isRetained(OccupancyResolution resolution, LocalDateTime from, LocalDateTime now) {
+        return !from.isBefore(now.minus(retention.get(resolution)));
+    }
+
+    private Optional<LocalDateTime> firstSourceBucket(OccupancyResolution source, OccupancyResolution target, LocalDateTime from) {
+        return occupancySampleRepository.findFirstByResolutionAndBucketStartGreaterThanEqualOrderByBucketStartAsc(source, from)
+                .map(first -> target.truncate(first.getBucketStart()));
+    }
+
+    private static OccupancySampleModel newSample(String condominiumId, String block, OccupancyResolution resolution, LocalDateTime bucket) {
+        var sample = new OccupancySampleModel();
+        sample.setCondominiumId(condominiumId);
+        sample.setBlock(block);
+        sample.setResolution(resolution);
+        sample.setBucketStart(bucket);
+        return sample;
+    }
+
+    private static String key(String condominiumId, String block) {
+        return condominiumId + '|' + block;
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("UTC"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.ParkingSessionModel;
+import com.api.parkingcontrol.repositories.ParkingSessionRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@Profile("!edge")
+public class ParkingSessionService {
+
+    final ParkingSessionRepository parkingSessionRepository;
+
+    public ParkingSessionService(ParkingSessionRepository parkingSessionRepository) {
+        this.parkingSessionRepository = parkingSessionRepository;
+    }
+
+    /**
+     * @return the started session, or empty when the spot already has a car parked
+     */
+    public Optional<ParkingSessionModel> enter(ParkingSessionModel parkingSessionModel) {
+        if (parkingSessionRepository.existsByParkingSpotIdAndExitedAtIsNull(parkingSessionModel.getParkingSpotId())) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(parkingSessionRepository.saveAndFlush(parkingSessionModel));
+        } catch (DataIntegrityViolationException e) {
+//            Another entry on the same spot won the race (see tb_parking_session_open.sql).
+            return Optional.empty();
+        }
+    }
+
+    @Transactional
+    public ParkingSessionModel exit(ParkingSessionModel parkingSessionModel, LocalDateTime exitedAt) {
+        parkingSessionModel.setExitedAt(exitedAt);
+        return parkingSessionRepository.save(parkingSessionModel);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ParkingSessionModel> findById(String condominiumId, UUID parkingSpotId, UUID id) {
+        return parkingSessionRepository.findByCondominiumIdAndParkingSpotIdAndId(condominiumId, parkingSpotId, id);
+    }
+}
@@ -0,0 +1,461 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.dtos.ParkingSpotDTO;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses parking spot CSV files straight from memory-mapped chunks. The file is split on line
+ * boundaries so chunks can be parsed independently; each field is decoded once into its final String,
+ * and values that repeat a lot (brand, model, color, apartment, block) are shared instead of being
+ * allocated for every row.
+ * <p>
+ * Fields may be quoted (with {@code ""} as an escaped quote) but cannot contain line breaks.
+ */
+public class ParkingSpotCsvParser {
+
+    public static final List<String> COLUMNS = List.of(
+            "parkingSpotNumber", "licensePlateCar", "brandCar", "modelCar",
+            "colorCar", "responsibleName", "apartment", "block");
+
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private static final boolean[] SHARED_VALUES = {false, false, true, true, true, false, true, true};
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final Validator validator;
+    private final boolean[] notBlank = new boolean[COLUMNS.size()];
+    private final int[] maxLength = new int[COLUMNS.size()];
+    private final boolean precheckOnly;
+
+    public ParkingSpotCsvParser(Validator validator) {
+        this.validator = validator;
+        this.precheckOnly = readConstraints(validator.getConstraintsForClass(ParkingSpotDTO.class));
+    }
+
+    /**
+     * Copies the {@code @NotBlank} and {@code @Size} constraints of {@link ParkingSpotDTO} so rows can be
+     * checked without going through the validator, which costs far more than parsing the row. The
+     * validator still runs for rows that fail (to build its messages), and for every row if the DTO
+     * declares any other constraint.
+     *
+     * @return whether the copied constraints are all the DTO declares
+     */
+    private boolean readConstraints(BeanDescriptor descriptor) {
+        Arrays.fill(maxLength, Integer.MAX_VALUE);
+        boolean complete = descriptor.getConstraintDescriptors().isEmpty();
+        for (PropertyDescriptor property : descriptor.getConstrainedProperties()) {
+            int field = COLUMNS.indexOf(property.getPropertyName());
+            if (field < 0) {
+                complete = false;
+                continue;
+            }
+            for (ConstraintDescriptor<?> constraint : property.getConstraintDescriptors()) {
+                if (constraint.getAnnotation() instanceof NotBlank) {
+                    notBlank[field] = true;
+                } else if (constraint.getAnnotation() instanceof Size && ((Size) constraint.getAnnotation()).min() == 0) {
+                    maxLength[field] = Math.min(maxLength[field], ((Size) constraint.getAnnotation()).max());
+                } else {
+                    complete = false;
+                }
+            }
+        }
+        return complete;
+    }
+
+    /**
+     * Reads the header line and maps each CSV column to its position in {@link #COLUMNS}
+     * ({@code -1} for columns that are ignored).
+     */
+    public Header readHeader(FileChannel channel) throws IOException {
+        long size = channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_LINE_LENGTH));
+        int end = indexOf(buffer, LF, 0, buffer.limit());
+        if (end < 0 && buffer.limit() == MAX_LINE_LENGTH) {
+            throw new IllegalArgumentException("Header line is longer than " + MAX_LINE_LENGTH + " bytes");
+        }
+        int lineEnd = end < 0 ? buffer.limit() : end;
+        byte[] bytes = new byte[lineEnd];
+        buffer.get(bytes);
+        String line = new String(bytes, StandardCharsets.UTF_8).replace("\uFEFF", "").trim();
+
+        String[] names = line.split(",", -1);
+        int[] fieldByColumn = new int[names.length];
+        boolean[] present = new boolean[COLUMNS.size()];
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].trim().replace("\"", "");
+            fieldByColumn[i] = COLUMNS.indexOf(name);
+            if (fieldByColumn[i] >= 0) {
+                present[fieldByColumn[i]] = true;
+            }
+        }
+        for (int field = 0; field < present.length; field++) {
+            if (!present[field]) {
+                throw new IllegalArgumentException("Missing column " + COLUMNS.get(field));
+            }
+        }
+        return new Header(fieldByColumn, end < 0 ? lineEnd : end + 1);
+    }
+
+    /**
+     * Splits {@code [start, size)} into chunks of roughly {@code chunkSize} bytes, each ending right after a line break.
+     */
+    public List<Chunk> split(FileChannel channel, long start, int chunkSize) throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        long position = start;
+        while (position < size) {
+            long end = Math.min(position + chunkSize, size);
+            if (end < size) {
+                end = nextLineStart(channel, end, size);
+            }
+            chunks.add(new Chunk(position, end));
+            position = end;
+        }
+        return chunks;
+    }
+
+    public ParsedChunk parse(FileChannel channel, Chunk chunk, Header header) throws IOException {
+        return parse(channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start), header);
+    }
+
+    ParsedChunk parse(MappedByteBuffer buffer, Header header) {
+        var result = new ParsedChunk();
+        var state = new ChunkState(COLUMNS.size());
+        int limit = buffer.limit();
+        int position = 0;
+        int line = 0;
+
+        while (position < limit) {
+            line++;
+            int lineEnd = indexOf(buffer, LF, position, limit);
+            if (lineEnd < 0) {
+                lineEnd = limit;
+            }
+            int contentEnd = lineEnd > position && buffer.get(lineEnd - 1) == CR ? lineEnd - 1 : lineEnd;
+            if (contentEnd > position) {
+                parseLine(buffer, position, contentEnd, line, header, state, result);
+            }
+            position = lineEnd + 1;
+        }
+        result.lines = line;
+        return result;
+    }
+
+    private void parseLine(MappedByteBuffer buffer, int start, int end, int line, Header header,
+                           ChunkState state, ParsedChunk result) {
+        String[] values = state.values;
+        Arrays.fill(values, null);
+        int column = 0;
+        int position = start;
+
+        while (true) {
+            int field = column < header.fieldByColumn.length ? header.fieldByColumn[column] : -1;
+            int fieldEnd;
+            if (position < end && buffer.get(position) == QUOTE) {
+                fieldEnd = readQuoted(buffer, position, end, state);
+                if (fieldEnd < 0) {
+                    result.errors.add(new RowError(line, "Malformed quoted field in column " + (column + 1)));
+                    return;
+                }
+                if (field >= 0) {
+                    values[field] = state.decode(field, state.scratchLength);
+                }
+            } else {
+                fieldEnd = indexOf(buffer, COMMA, position, end);
+                if (fieldEnd < 0) {
+                    fieldEnd = end;
+                }
+                if (field >= 0) {
+                    values[field] = state.decode(field, buffer, position, fieldEnd);
+                }
+            }
+            column++;
+            if (fieldEnd >= end) {
+                break;
+            }
+            position = fieldEnd + 1;
+        }
+
+        if (column != header.fieldByColumn.length) {
+            result.errors.add(new RowError(line, "Expected " + header.fieldByColumn.length + " columns but found " + column));
+            return;
+        }
+
+        var dto = new ParkingSpotDTO();
+        dto.setParkingSpotNumber(values[0]);
+        dto.setLicensePlateCar(values[1]);
+        dto.setBrandCar(values[2]);
+        dto.setModelCar(values[3]);
+        dto.setColorCar(values[4]);
+        dto.setResponsibleName(values[5]);
+        dto.setApartment(values[6]);
+        dto.setBlock(values[7]);
+
+        if (precheckOnly && passesConstraints(values)) {
+            result.rows.add(new ParsedRow(line, dto));
+            return;
+        }
+        Set<ConstraintViolation<ParkingSpotDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            StringBuilder message = new StringBuilder();
+            for (ConstraintViolation<ParkingSpotDTO> violation : violations) {
+                if (message.length() > 0) {
+                    message.append("; ");
+                }
+                message.append(violation.getPropertyPath()).append(' ').append(violation.getMessage());
+            }
+            result.errors.add(new RowError(line, message.toString()));
+            return;
+        }
+        result.rows.add(new ParsedRow(line, dto));
+    }
+
+    private boolean passesConstraints(String[] values) {
+        for (int field = 0; field < values.length; field++) {
+            String value = values[field];
+            if (value == null) {
+                if (notBlank[field]) {
+                    return false;
+                }
+                continue;
+            }
+            if (value.length() > maxLength[field] || notBlank[field] && value.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the unescaped content of the quoted field starting at {@code start} into the scratch buffer.
+     *
+     * @return the position after the field, or -1 when the quotes are unbalanced
+     */
+    private int readQuoted(MappedByteBuffer buffer, int start, int end, ChunkState state) {
+        state.scratchLength = 0;
+        int position = start + 1;
+        while (position < end) {
+            byte b = buffer.get(position);
+            if (b == QUOTE) {
+                if (position + 1 < end && buffer.get(position + 1) == QUOTE) {
+                    state.append(QUOTE);
+                    position += 2;
+                    continue;
+                }
+                position++;
+                return position == end || buffer.get(position) == COMMA ? position : -1;
+            }
+            state.append(b);
+            position++;
+        }
+        return -1;
+    }
+
+    private long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        int window = (int) Math.min(MAX_LINE_LENGTH, size - from);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, window);
+        int index = indexOf(buffer, LF, 0, window);
+        if (index >= 0) {
+            return from + index + 1;
+        }
+        if (from + window == size) {
+            return size;
+        }
+        throw new IllegalArgumentException("Line longer than " + MAX_LINE_LENGTH + " bytes at offset " + from);
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Per-chunk parsing state: the row being assembled, a scratch buffer for decoding and the
+     * caches of repeated values. Owned by a single thread.
+     */
+    private static final class ChunkState {
+
+        private static final int CACHE_SLOTS = 1024;
+
+        private final String[] values;
+        private final byte[][][] cachedBytes;
+        private final String[][] cachedValues;
+        private byte[] scratch = new byte[256];
+        private int scratchLength;
+
+        private ChunkState(int fields) {
+            this.values = new String[fields];
+            this.cachedBytes = new byte[fields][][];
+            this.cachedValues = new String[fields][];
+            for (int field = 0; field < fields; field++) {
+                if (SHARED_VALUES[field]) {
+                    cachedBytes[field] = new byte[CACHE_SLOTS][];
+                    cachedValues[field] = new String[CACHE_SLOTS];
+                }
+            }
+        }
+
+        private void append(byte b) {
+            if (scratchLength == scratch.length) {
+                scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            }
+            scratch[scratchLength++] = b;
+        }
+
+        private String decode(int field, MappedByteBuffer buffer, int start, int end) {
+            while (start < end && buffer.get(start) == ' ') {
+                start++;
+            }
+            while (end > start && buffer.get(end - 1) == ' ') {
+                end--;
+            }
+            scratchLength = 0;
+            for (int i = start; i < end; i++) {
+                append(buffer.get(i));
+            }
+            return decode(field, scratchLength);
+        }
+
+        private String decode(int field, int length) {
+            if (length == 0) {
+                return "";
+            }
+            byte[][] keys = cachedBytes[field];
+            if (keys == null) {
+                return new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + scratch[i];
+            }
+            int slot = (hash ^ hash >>> 16) & (CACHE_SLOTS - 1);
+            byte[] key = keys[slot];
+            if (key != null && Arrays.equals(key, 0, key.length, scratch, 0, length)) {
+                return cachedValues[field][slot];
+            }
+            String value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            keys[slot] = Arrays.copyOf(scratch, length);
+            cachedValues[field][slot] = value;
+            return value;
+        }
+    }
+
+    public static final class Header {
+
+        private final int[] fieldByColumn;
+        private final long end;
+
+        Header(int[] fieldByColumn, long end) {
+            this.fieldByColumn = fieldByColumn;
+            this.end = end;
+        }
+
+        /**
+         * @return offset of the first byte after the header line
+         */
+        public long getEnd() {
+            return end;
+        }
+    }
+
+    public static final class Chunk {
+
+        private final long start;
+        private final long end;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+    }
+
+    /**
+     * Rows and errors of one chunk; line numbers are relative to the start of the chunk.
+     */
+    public static final class ParsedChunk {
+
+        private final List<ParsedRow> rows = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int lines;
+
+        public List<ParsedRow> getRows() {
+            return rows;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public int getLines() {
+            return lines;
+        }
+    }
+
+    public static final class ParsedRow {
+
+        private final int line;
+        private final ParkingSpotDTO parkingSpot;
+
+        ParsedRow(int line, ParkingSpotDTO parkingSpot) {
+            this.line = line;
+            this.parkingSpot = parkingSpot;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public ParkingSpotDTO getParkingSpot() {
+            return parkingSpot;
+        }
+    }
+
+    public static final class RowError {
+
+        private final int line;
+        private final String message;
+
+        RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.api.parkingcontrol.services;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one CSV import. Updated by the import thread and read by the status endpoint.
+ */
+public class ParkingSpotImportJob {
+
+    public enum Status {QUEUED, RUNNING, COMPLETED, FAILED}
+
+    private final UUID id = UUID.randomUUID();
+    private final String condominiumId;
+    private final String fileName;
+    private final long totalBytes;
+    private final int maxErrors;
+    private final AtomicLong bytesParsed = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private final LocalDateTime createdAt = now();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failureMessage;
+
+    public ParkingSpotImportJob(String condominiumId, String fileName, long totalBytes, int maxErrors) {
+        this.condominiumId = condominiumId;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void parsed(long bytes) {
+        bytesParsed.addAndGet(bytes);
+    }
+
+    void imported(int rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    void reject(long line, String message) {
+        rowsRejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    void complete() {
+        bytesParsed.set(totalBytes);
+        finishedAt = now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        failureMessage = message;
+        finishedAt = now();
+        status = Status.FAILED;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public String getCondominiumId() {
+        return condominiumId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getBytesParsed() {
+        return bytesParsed.get();
+    }
+
+    public int getProgress() {
+        return totalBytes == 0 ? 100 : (int) (bytesParsed.get() * 100 / totalBytes);
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    /**
+     * Whether more rows were rejected than the error report keeps.
+     */
+    public boolean isErrorsTruncated() {
+        return rowsRejected.get() > maxErrors;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    /**
+     * @return the recorded row errors sorted by line
+     */
+    @JsonIgnore
+    public List<RowError> getErrors() {
+        List<RowError> copy;
+        synchronized (errors) {
+            copy = new ArrayList<>(errors);
+        }
+        copy.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+        return copy;
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("UTC"));
+    }
+
+    public static final class RowError {
+
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
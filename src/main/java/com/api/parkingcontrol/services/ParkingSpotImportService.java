@@ -0,0 +1,301 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.dtos.ParkingSpotDTO;
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import com.api.parkingcontrol.repositories.ParkingSpotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports parking spot CSV files in the background. Chunks of the memory-mapped file are parsed and
+ * validated in parallel on a fork-join pool, then consumed in file order: duplicates inside the file
+ * and against the condominium's existing spots are rejected in memory, and the remaining rows are
+ * written in batches. Imports run one at a time; once {@code max-queued} uploads are waiting or running,
+ * new ones are refused instead of piling up temporary files. Finished jobs stay queryable for
+ * {@code job-ttl}, and only finished jobs are dropped when the registry is full.
+ */
+@Service
+@Profile("!edge")
+public class ParkingSpotImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParkingSpotImportService.class);
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final ParkingSpotCsvParser parser;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedTtlCache<UUID, ParkingSpotImportJob> jobs;
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "parking-spot-import"));
+    private final ForkJoinPool parsePool;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int maxErrors;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public ParkingSpotImportService(ParkingSpotRepository parkingSpotRepository, Validator validator,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${parking-control.import.chunk-size:8388608}") int chunkSize,
+                                    @Value("${parking-control.import.batch-size:1000}") int batchSize,
+                                    @Value("${parking-control.import.max-errors:10000}") int maxErrors,
+                                    @Value("${parking-control.import.parallelism:0}") int parallelism,
+                                    @Value("${parking-control.import.max-queued:10}") int maxQueued,
+                                    @Value("${parking-control.import.job-ttl:24h}") Duration jobTtl) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.parser = new ParkingSpotCsvParser(validator);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobs = new BoundedTtlCache<>(100, jobTtl, Clock.systemUTC(), ParkingSpotImportJob::isFinished);
+        this.parsePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Stores the upload in a temporary file and queues its import.
+     *
+     * @throws JobQueueFullException when {@code max-queued} imports are already waiting or running
+     */
+    public ParkingSpotImportJob startImport(String condominiumId, MultipartFile file) throws IOException {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new JobQueueFullException("imports", maxQueued);
+        }
+        try {
+            return queueImport(condominiumId, file);
+        } catch (IOException | RuntimeException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private ParkingSpotImportJob queueImport(String condominiumId, MultipartFile file) throws IOException {
+        Path tempFile = Files.createTempFile("parking-spot-import-", ".csv");
+        try {
+            file.transferTo(tempFile);
+            var job = new ParkingSpotImportJob(condominiumId, file.getOriginalFilename(), Files.size(tempFile), maxErrors);
+            jobs.put(job.getId(), job);
+            importExecutor.execute(() -> {
+                try {
+                    run(job, tempFile);
+                } finally {
+                    queued.decrementAndGet();
+                }
+            });
+            return job;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    public Optional<ParkingSpotImportJob> findJob(String condominiumId, UUID id) {
+        return Optional.ofNullable(jobs.get(id)).filter(job -> job.getCondominiumId().equals(condominiumId));
+    }
+
+    void run(ParkingSpotImportJob job, Path file) {
+        job.start();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            importFile(job, channel);
+            job.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import interrupted");
+        } catch (Exception e) {
+            log.warn("Parking spot import {} failed", job.getId(), e);
+            job.fail(e instanceof ExecutionException ? e.getCause().getMessage() : e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", file, e);
+            }
+        }
+    }
+
+    private void importFile(ParkingSpotImportJob job, FileChannel channel) throws Exception {
+        ParkingSpotCsvParser.Header header = parser.readHeader(channel);
+        job.parsed(header.getEnd());
+        List<ParkingSpotCsvParser.Chunk> chunks = parser.split(channel, header.getEnd(), chunkSize);
+        var keys = new ExistingKeys(parkingSpotRepository.findKeysByCondominiumId(job.getCondominiumId()));
+        var batch = new Batch(job, batchSize);
+
+//        Parses a bounded number of chunks ahead of the writer so memory does not grow with the file.
+        int parseAhead = parsePool.getParallelism() * 2;
+        Deque<Future<ParkingSpotCsvParser.ParsedChunk>> pending = new ArrayDeque<>();
+        int next = 0;
+        int consumed = 0;
+        long lineOffset = 1;
+
+        while (next < chunks.size() || !pending.isEmpty()) {
+            while (next < chunks.size() && pending.size() < parseAhead) {
+                ParkingSpotCsvParser.Chunk toParse = chunks.get(next++);
+                pending.add(parsePool.submit(() -> parser.parse(channel, toParse, header)));
+            }
+            ParkingSpotCsvParser.ParsedChunk parsed = pending.poll().get();
+            ParkingSpotCsvParser.Chunk chunk = chunks.get(consumed++);
+
+            for (ParkingSpotCsvParser.RowError error : parsed.getErrors()) {
+                job.reject(lineOffset + error.getLine(), error.getMessage());
+            }
+            for (ParkingSpotCsvParser.ParsedRow row : parsed.getRows()) {
+                long line = lineOffset + row.getLine();
+                String conflict = keys.claim(row.getParkingSpot());
+                if (conflict != null) {
+                    job.reject(line, conflict);
+                } else {
+                    batch.add(line, toModel(job.getCondominiumId(), row.getParkingSpot()));
+                }
+            }
+            lineOffset += parsed.getLines();
+            job.parsed(chunk.getEnd() - chunk.getStart());
+        }
+        batch.flush();
+    }
+
+    private ParkingSpotModel toModel(String condominiumId, ParkingSpotDTO dto) {
+        var parkingSpotModel = new ParkingSpotModel();
+        parkingSpotModel.setCondominiumId(condominiumId);
+        parkingSpotModel.setParkingSpotNumber(dto.getParkingSpotNumber());
+        parkingSpotModel.setLicensePlateCar(dto.getLicensePlateCar());
+        parkingSpotModel.setBrandCar(dto.getBrandCar());
+        parkingSpotModel.setModelCar(dto.getModelCar());
+        parkingSpotModel.setColorCar(dto.getColorCar());
+        parkingSpotModel.setResponsibleName(dto.getResponsibleName());
+        parkingSpotModel.setApartment(dto.getApartment());
+        parkingSpotModel.setBlock(dto.getBlock());
+        parkingSpotModel.setRegistrationDate(LocalDateTime.now(ZoneId.of("UTC")));
+        return parkingSpotModel;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+        parsePool.shutdownNow();
+    }
+
+    /**
+     * The unique keys already taken in the condominium, plus those claimed by earlier rows of the file.
+     */
+    static final class ExistingKeys {
+
+        private final Set<String> parkingSpotNumbers = new HashSet<>();
+        private final Set<String> licensePlates = new HashSet<>();
+        private final Set<String> apartmentBlocks = new HashSet<>();
+
+        ExistingKeys(List<ParkingSpotRepository.ParkingSpotKeys> existing) {
+            for (ParkingSpotRepository.ParkingSpotKeys keys : existing) {
+                parkingSpotNumbers.add(keys.getParkingSpotNumber());
+                licensePlates.add(keys.getLicensePlateCar());
+                apartmentBlocks.add(apartmentBlock(keys.getApartment(), keys.getBlock()));
+            }
+        }
+
+        /**
+         * @return the conflict message, or {@code null} after reserving the row's keys
+         */
+        String claim(ParkingSpotDTO dto) {
+            if (licensePlates.contains(dto.getLicensePlateCar())) {
+                return "Conflict: License Plate Car is already in use!";
+            }
+            if (parkingSpotNumbers.contains(dto.getParkingSpotNumber())) {
+                return "Conflict: Parking Spot is already in use!";
+            }
+            String apartmentBlock = apartmentBlock(dto.getApartment(), dto.getBlock());
+            if (apartmentBlocks.contains(apartmentBlock)) {
+                return "Conflict: Parking Spot already registered for this apartment/block!";
+            }
+            licensePlates.add(dto.getLicensePlateCar());
+            parkingSpotNumbers.add(dto.getParkingSpotNumber());
+            apartmentBlocks.add(apartmentBlock);
+            return null;
+        }
+
+        private static String apartmentBlock(String apartment, String block) {
+            return apartment + '\u0000' + block;
+        }
+    }
+
+    /**
+     * Rows waiting to be inserted. Each batch is one transaction; if a row conflicts with a spot
+     * created concurrently the batch is retried row by row so only that row is rejected.
+     */
+    private final class Batch {
+
+        private final ParkingSpotImportJob job;
+        private final int size;
+        private final List<ParkingSpotModel> models;
+        private final List<Long> lines;
+
+        private Batch(ParkingSpotImportJob job, int size) {
+            this.job = job;
+            this.size = size;
+            this.models = new ArrayList<>(size);
+            this.lines = new ArrayList<>(size);
+        }
+
+        private void add(long line, ParkingSpotModel model) {
+            models.add(model);
+            lines.add(line);
+            if (models.size() >= size) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (models.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> parkingSpotRepository.saveAll(models));
+                job.imported(models.size());
+            } catch (DataIntegrityViolationException e) {
+                for (int i = 0; i < models.size(); i++) {
+                    ParkingSpotModel model = models.get(i);
+                    model.setId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> parkingSpotRepository.save(model));
+                        job.imported(1);
+                    } catch (DataIntegrityViolationException rowException) {
+                        job.reject(lines.get(i), "Conflict: Parking Spot was registered while the import was running!");
+                    }
+                }
+            }
+            models.clear();
+            lines.clear();
+        }
+    }
+}
@@ -1,53 +1,112 @@
 package com.api.parkingcontrol.services;
 
 import com.api.parkingcontrol.models.ParkingSpotModel;
-import com.api.parkingcontrol.repositories.ParkingSpotRepository;
+import com.api.parkingcontrol.repositories.ParkingSpotStore;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 @Service
 public class ParkingSpotService {
 
-    final ParkingSpotRepository parkingSpotRepository;
+    final ParkingSpotStore parkingSpotStore;
+    final ReadCoalescer readCoalescer;
+    final int lookupChunkSize;
 
-    public ParkingSpotService(ParkingSpotRepository parkingSpotRepository) {
-        this.parkingSpotRepository = parkingSpotRepository;
+    public ParkingSpotService(ParkingSpotStore parkingSpotStore, ReadCoalescer readCoalescer,
+                              @Value("${parking-control.lookup.chunk-size:1000}") int lookupChunkSize) {
+        this.parkingSpotStore = parkingSpotStore;
+        this.readCoalescer = readCoalescer;
+        this.lookupChunkSize = lookupChunkSize;
     }
 
-    @Transactional
     public ParkingSpotModel save(ParkingSpotModel parkingSpotModel) {
-        return parkingSpotRepository.save(parkingSpotModel);
+        return parkingSpotStore.save(parkingSpotModel);
     }
 
+    public boolean existsByLicensePlateCar(String condominiumId, String licensePlateCar) {
+        return readCoalescer.execute("existsByLicensePlateCar", List.of("existsByLicensePlateCar", condominiumId, licensePlateCar),
+                () -> parkingSpotStore.existsByLicensePlateCar(condominiumId, licensePlateCar),
+                UnaryOperator.identity());
+    }
 
-    public boolean existsByLicensePlateCar(String licensePlateCar) {
-        return parkingSpotRepository.existsByLicensePlateCar(licensePlateCar);
+    public boolean existsByParkingSpotNumber(String condominiumId, String parkingSpotNumber) {
+        return readCoalescer.execute("existsByParkingSpotNumber", List.of("existsByParkingSpotNumber", condominiumId, parkingSpotNumber),
+                () -> parkingSpotStore.existsByParkingSpotNumber(condominiumId, parkingSpotNumber),
+                UnaryOperator.identity());
     }
 
-    public boolean existsByParkingSpotNumber(String parkingSpotNumber) {
-        return parkingSpotRepository.existsByParkingSpotNumber(parkingSpotNumber);
+    public boolean existsByApartmentAndBlock(String condominiumId, String apartment, String block) {
+        return readCoalescer.execute("existsByApartmentAndBlock", List.of("existsByApartmentAndBlock", condominiumId, apartment, block),
+                () -> parkingSpotStore.existsByApartmentAndBlock(condominiumId, apartment, block),
+                UnaryOperator.identity());
     }
 
-    public boolean existsByApartmentAndBlock(String apartment, String block) {
-        return parkingSpotRepository.existsByApartmentAndBlock(apartment, block);
+    public Page<ParkingSpotModel> findAll(String condominiumId, Pageable pageable) {
+        return readCoalescer.execute("findAll", List.of("findAll", condominiumId, pageable),
+                () -> parkingSpotStore.findAll(condominiumId, pageable),
+                page -> page.map(ParkingSpotService::copy));
     }
 
-    public Page<ParkingSpotModel> findAll(Pageable pageable) {
-        return parkingSpotRepository.findAll(pageable);
+    public Optional<ParkingSpotModel> findById(String condominiumId, UUID id) {
+        return readCoalescer.execute("findById", List.of("findById", condominiumId, id),
+                () -> parkingSpotStore.findById(condominiumId, id),
+                found -> found.map(ParkingSpotService::copy));
     }
 
-    public Optional<ParkingSpotModel> findById(UUID id) {
-        return parkingSpotRepository.findById(id);
+    /**
+     * Resolves {@code ids} with one IN query per {@code lookupChunkSize} ids, handing each spot
+     * found to {@code found} as soon as its chunk is read, in the order of {@code ids}.
+     * Repeated ids are resolved once.
+     *
+     * @return the ids not found in the condominium, in the order of {@code ids}
+     */
+    public List<UUID> lookup(String condominiumId, Collection<UUID> ids, Consumer<ParkingSpotModel> found) {
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<UUID> missingIds = new ArrayList<>();
+
+        for (int from = 0; from < distinctIds.size(); from += lookupChunkSize) {
+            List<UUID> chunk = distinctIds.subList(from, Math.min(from + lookupChunkSize, distinctIds.size()));
+            Map<UUID, ParkingSpotModel> spotsById = new HashMap<>();
+            for (ParkingSpotModel spot : parkingSpotStore.findAllById(condominiumId, chunk)) {
+                spotsById.put(spot.getId(), spot);
+            }
+            for (UUID id : chunk) {
+                ParkingSpotModel spot = spotsById.get(id);
+                if (spot != null) {
+                    found.accept(spot);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+        }
+        return missingIds;
     }
 
-    @Transactional
     public void delete(ParkingSpotModel parkingSpotModel) {
-        parkingSpotRepository.delete(parkingSpotModel);
+        parkingSpotStore.delete(parkingSpotModel);
+    }
+
+    /**
+     * Callers that joined a coalesced read get their own detached copy, so one request
+     * mutating its entity (e.g. PUT) never leaks into what another request serializes.
+     */
+    private static ParkingSpotModel copy(ParkingSpotModel source) {
+        var copy = new ParkingSpotModel();
+        BeanUtils.copyProperties(source, copy);
+        return copy;
     }
 }
@@ -0,0 +1,142 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.datasources.ReadYourWritesTracker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight for reads: concurrent calls with the same key share the in-flight load of the
+ * first caller instead of each issuing the same query. Callers that join an in-flight load wait
+ * at most the configured timeout and receive the leader's exception if the load fails.
+ */
+@Component
+public class ReadCoalescer implements MeterBinder {
+
+    private final Map<Object, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+    private final Map<String, Stats> statsByOperation = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private volatile MeterRegistry meterRegistry;
+
+    public ReadCoalescer(@Value("${parking-control.coalescing.timeout:2s}") Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * @param operation name used for metrics
+     * @param key       identifies identical reads; must implement equals/hashCode. Callers pinned to the
+     *                  primary (see {@link ReadYourWritesTracker}) only share loads among themselves, so
+     *                  they never receive what a leader read from a replica.
+     * @param loader    performs the read; only runs on the leader
+     * @param share     applied to the leader's result before handing it to each follower,
+     *                  e.g. to give every caller its own copy of a mutable entity
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> loader, UnaryOperator<T> share) {
+        Stats stats = stats(operation);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        Object scopedKey = List.of(key, ReadYourWritesTracker.isPrimaryPinned());
+        CompletableFuture<Object> existing = inflight.putIfAbsent(scopedKey, call);
+
+        if (existing == null) {
+            stats.leaders.increment();
+            try {
+                T value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inflight.remove(scopedKey, call);
+            }
+        }
+
+        stats.followers.increment();
+        try {
+            return share.apply((T) existing.get(timeoutNanos, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            stats.timeouts.increment();
+            throw new ReadCoalescingTimeoutException(operation, Duration.ofNanos(timeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReadCoalescingTimeoutException(operation, Duration.ofNanos(timeoutNanos));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        statsByOperation.forEach((operation, stats) -> stats.register(operation, registry));
+    }
+
+    private Stats stats(String operation) {
+        Stats stats = statsByOperation.get(operation);
+        if (stats != null) {
+            return stats;
+        }
+        return statsByOperation.computeIfAbsent(operation, name -> {
+            Stats created = new Stats();
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                created.register(name, registry);
+            }
+            return created;
+        });
+    }
+
+    private static final class Stats {
+
+        private final LongAdder leaders = new LongAdder();
+        private final LongAdder followers = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        private double ratio() {
+            double coalesced = followers.sum();
+            double total = coalesced + leaders.sum();
+            return total == 0 ? 0 : coalesced / total;
+        }
+
+        private void register(String operation, MeterRegistry registry) {
+            FunctionCounter.builder("parking.coalescing.calls", leaders, LongAdder::sum)
+                    .tags("operation", operation, "role", "leader")
+                    .description("Reads that hit the database")
+                    .register(registry);
+            FunctionCounter.builder("parking.coalescing.calls", followers, LongAdder::sum)
+                    .tags("operation", operation, "role", "follower")
+                    .description("Reads answered by joining an identical in-flight read")
+                    .register(registry);
+            FunctionCounter.builder("parking.coalescing.timeouts", timeouts, LongAdder::sum)
+                    .tag("operation", operation)
+                    .register(registry);
+            Gauge.builder("parking.coalescing.ratio", this, Stats::ratio)
+                    .tag("operation", operation)
+                    .description("Share of reads answered without their own database call")
+                    .register(registry);
+        }
+    }
+}
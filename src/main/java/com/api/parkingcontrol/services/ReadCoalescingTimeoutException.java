@@ -0,0 +1,14 @@
+package com.api.parkingcontrol.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReadCoalescingTimeoutException extends RuntimeException {
+
+    public ReadCoalescingTimeoutException(String operation, Duration timeout) {
+        super("Timed out after " + timeout.toMillis() + " ms waiting for in-flight " + operation);
+    }
+}
@@ -0,0 +1,90 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.VisitorReservationModel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The bookings of one parking spot as {@code [start, end)} intervals keyed by start. Bookings of a
+ * spot never overlap, so the only one that can overlap a new interval is the last booking starting
+ * before the new one ends: a sorted map answers that in O(log n) without a general interval tree.
+ * <p>
+ * Not thread-safe; callers hold {@link #getLock()} for the whole check-and-book sequence.
+ */
+class ReservationCalendar {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<LocalDateTime, Booking> bookings = new TreeMap<>();
+    private long loadedAtNanos;
+    private boolean loaded;
+
+    ReentrantLock getLock() {
+        return lock;
+    }
+
+    boolean isFresh(long nowNanos, long ttlNanos) {
+        return loaded && nowNanos - loadedAtNanos < ttlNanos;
+    }
+
+    void load(List<VisitorReservationModel> reservations, long nowNanos) {
+        bookings.clear();
+        for (VisitorReservationModel reservation : reservations) {
+            add(reservation.getId(), reservation.getStartsAt(), reservation.getEndsAt());
+        }
+        loadedAtNanos = nowNanos;
+        loaded = true;
+    }
+
+    /**
+     * Forces the next booking to reload from the database.
+     */
+    void invalidate() {
+        loaded = false;
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Booking> previous = bookings.lowerEntry(end);
+        return previous != null && previous.getValue().endsAt.isAfter(start);
+    }
+
+    void add(UUID id, LocalDateTime start, LocalDateTime end) {
+        bookings.put(start, new Booking(id, end));
+    }
+
+    void remove(UUID id, LocalDateTime start) {
+        Booking booking = bookings.get(start);
+        if (booking != null && booking.id.equals(id)) {
+            bookings.remove(start);
+        }
+    }
+
+    /**
+     * Drops bookings that ended at or before {@code now}; since they are disjoint, they are the first ones.
+     */
+    void prune(LocalDateTime now) {
+        Map.Entry<LocalDateTime, Booking> first;
+        while ((first = bookings.firstEntry()) != null && !first.getValue().endsAt.isAfter(now)) {
+            bookings.pollFirstEntry();
+        }
+    }
+
+    int size() {
+        return bookings.size();
+    }
+
+    private static final class Booking {
+
+        private final UUID id;
+        private final LocalDateTime endsAt;
+
+        private Booking(UUID id, LocalDateTime endsAt) {
+            this.id = id;
+            this.endsAt = endsAt;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.VisitorReservationModel;
+import com.api.parkingcontrol.repositories.VisitorReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Books visitor reservations. Each spot has its own calendar and lock, so bookings of different
+ * spots never wait on each other; overlaps are checked in memory and the database's exclusion
+ * constraint catches bookings made through other instances, after which the spot's calendar is
+ * reloaded. Calendars are also reloaded once they are older than the configured TTL, so
+ * cancellations made elsewhere are picked up.
+ */
+@Service
+@Profile("!edge")
+public class VisitorReservationService {
+
+    final VisitorReservationRepository visitorReservationRepository;
+    private final Map<UUID, ReservationCalendar> calendars = new ConcurrentHashMap<>();
+    private final long calendarTtlNanos;
+
+    public VisitorReservationService(VisitorReservationRepository visitorReservationRepository,
+                                     @Value("${parking-control.reservations.calendar-ttl:60s}") Duration calendarTtl) {
+        this.visitorReservationRepository = visitorReservationRepository;
+        this.calendarTtlNanos = calendarTtl.toNanos();
+    }
+
+    /**
+     * @return the saved reservation, or empty when the spot is already booked for part of the period
+     */
+    public Optional<VisitorReservationModel> reserve(VisitorReservationModel reservation) {
+        UUID parkingSpotId = reservation.getParkingSpotId();
+        ReservationCalendar calendar = calendars.computeIfAbsent(parkingSpotId, id -> new ReservationCalendar());
+        ReentrantLock lock = calendar.getLock();
+        lock.lock();
+        try {
+            LocalDateTime now = now();
+            long nowNanos = System.nanoTime();
+            if (!calendar.isFresh(nowNanos, calendarTtlNanos)) {
+                calendar.load(visitorReservationRepository.findAllByParkingSpotIdAndEndsAtAfterOrderByStartsAt(parkingSpotId, now), nowNanos);
+            } else {
+                calendar.prune(now);
+            }
+
+            if (calendar.overlaps(reservation.getStartsAt(), reservation.getEndsAt())) {
+                return Optional.empty();
+            }
+
+            VisitorReservationModel saved;
+            try {
+                saved = visitorReservationRepository.saveAndFlush(reservation);
+            } catch (DataIntegrityViolationException e) {
+//                Booked through another instance since the calendar was loaded.
+                calendar.invalidate();
+                return Optional.empty();
+            }
+            calendar.add(saved.getId(), saved.getStartsAt(), saved.getEndsAt());
+            return Optional.of(saved);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(VisitorReservationModel reservation) {
+        ReservationCalendar calendar = calendars.get(reservation.getParkingSpotId());
+        if (calendar == null) {
+            visitorReservationRepository.delete(reservation);
+            return;
+        }
+        ReentrantLock lock = calendar.getLock();
+        lock.lock();
+        try {
+            visitorReservationRepository.delete(reservation);
+            calendar.remove(reservation.getId(), reservation.getStartsAt());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<VisitorReservationModel> findById(String condominiumId, UUID parkingSpotId, UUID id) {
+        return visitorReservationRepository.findByCondominiumIdAndParkingSpotIdAndId(condominiumId, parkingSpotId, id);
+    }
+
+    /**
+     * @return the reservations of the spot that overlap {@code [from, to)}, ordered by start
+     */
+    @Transactional(readOnly = true)
+    public List<VisitorReservationModel> findAll(String condominiumId, UUID parkingSpotId, LocalDateTime from, LocalDateTime to) {
+        return visitorReservationRepository.findAllByCondominiumIdAndParkingSpotIdAndStartsAtBeforeAndEndsAtAfterOrderByStartsAt(
+                condominiumId, parkingSpotId, to, from);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("UTC"));
+    }
+}
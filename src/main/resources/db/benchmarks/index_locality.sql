@@ -0,0 +1,65 @@
+-- Before/after measurement for time-ordered ids and packed plates. Run with psql against a scratch
+-- database: psql -f index_locality.sql. Uses its own tables; nothing of the application is touched.
+-- \timing reports the insert time of each variant; the final query reports index sizes.
+-- Needs parking_license_plate_code() from db/migrations/tb_parking_spot_license_plate_code.sql.
+--
+-- Reference run (PostgreSQL 14.10, default settings, 1 vCPU, median of 3; 2M ids, ~1.99M plates):
+--   random ids          17.6 s  114k rows/s   pkey 75-77 MB, leaf density 70-72 %
+--   time-ordered ids    15.7 s  128k rows/s   pkey 60 MB,    leaf density 90 %
+--   plates as text       6.7 s  296k rows/s   unique index 60 MB, leaf density 90 %
+--   packed plates        5.8 s  341k rows/s   unique index 60 MB, leaf density 90 %
+-- Plate lookups are single index-only scans in both layouts (0.06-0.10 ms).
+
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+
+DROP TABLE IF EXISTS bench_random_id, bench_time_ordered_id, bench_plate_text, bench_plate_code;
+
+CREATE TABLE bench_random_id (id uuid PRIMARY KEY, payload text);
+CREATE TABLE bench_time_ordered_id (id uuid PRIMARY KEY, payload text);
+CREATE TABLE bench_plate_text (condominium_id varchar(64), license_plate_car varchar(7), UNIQUE (condominium_id, license_plate_car));
+CREATE TABLE bench_plate_code (condominium_id varchar(64), license_plate_code bigint, UNIQUE (condominium_id, license_plate_code));
+
+-- Version 4 (random) ids, as generated before
+INSERT INTO bench_random_id
+SELECT gen_random_uuid(), repeat('x', 200)
+FROM generate_series(1, 2000000);
+
+-- Version 7 ids in the order TimeOrderedUuidGenerator hands them out under a bulk insert: 48 bits of
+-- milliseconds, version 7, a 12 bit sequence that moves to the next millisecond once exhausted, then
+-- the variant and random bits of a version 4 id
+INSERT INTO bench_time_ordered_id
+SELECT (lpad(to_hex(((now.millis + g / 4096) << 16) | x'7000'::int | (g % 4096)), 16, '0')
+            || right(replace(gen_random_uuid()::text, '-', ''), 16))::uuid,
+       repeat('x', 200)
+FROM generate_series(0, 1999999) AS g,
+     (SELECT (extract(epoch FROM clock_timestamp()) * 1000)::bigint AS millis) AS now;
+
+-- Same random Mercosul plates, stored as text and packed; packed up front so both inserts only
+-- differ in the index they maintain
+CREATE TEMP TABLE plates AS
+SELECT plate, parking_license_plate_code(plate) AS code
+FROM (SELECT DISTINCT chr(65 + (random() * 25)::int) || chr(65 + (random() * 25)::int) || chr(65 + (random() * 25)::int)
+                          || (random() * 9)::int || chr(65 + (random() * 25)::int)
+                          || (random() * 9)::int || (random() * 9)::int AS plate
+      FROM generate_series(1, 2000000)) AS generated;
+
+INSERT INTO bench_plate_text SELECT 'default', plate FROM plates;
+INSERT INTO bench_plate_code SELECT 'default', code FROM plates;
+
+ANALYZE;
+
+SELECT c.relname                                   AS index_name,
+       pg_size_pretty(pg_relation_size(c.oid))     AS index_size,
+       (pgstatindex(c.oid::regclass)).avg_leaf_density AS leaf_density
+FROM pg_class c
+WHERE c.relkind = 'i'
+  AND c.relname LIKE 'bench_%'
+ORDER BY c.relname;
+
+-- Lookup cost of the existsByLicensePlate* queries
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1 FROM bench_plate_text WHERE condominium_id = 'default' AND license_plate_car = (SELECT plate FROM plates LIMIT 1);
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1 FROM bench_plate_code WHERE condominium_id = 'default' AND license_plate_code = (SELECT code FROM plates LIMIT 1);
@@ -0,0 +1,7 @@
+-- At most one car parked on a spot at a time: ParkingSessionService checks for an open session
+-- first, and this index rejects the entry that loses a race between two instances.
+-- Run once after Hibernate has created tb_parking_session.
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_parking_session_spot_open
+    ON tb_parking_session (parking_spot_id)
+    WHERE exited_at IS NULL;
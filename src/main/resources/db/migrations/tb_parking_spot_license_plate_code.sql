@@ -0,0 +1,45 @@
+-- Adds the packed license plate (see LicensePlateCodec) and moves plate uniqueness onto it.
+-- Run once, after tb_parking_spot_partitioned.sql and before deploying the release that reads it.
+--
+-- Plates in the packable format (7 upper case letters/digits) are unique through the bigint index;
+-- the remaining plates are copied to license_plate_unpacked and are unique through that column.
+-- Both are plain unique constraints (NULLs never collide), the same ones Hibernate's ddl-auto creates
+-- from ParkingSpotModel.
+
+BEGIN;
+
+CREATE OR REPLACE FUNCTION parking_license_plate_code(plate text) RETURNS bigint
+    LANGUAGE plpgsql IMMUTABLE STRICT AS
+$$
+DECLARE
+    code  bigint := 0;
+    digit int;
+BEGIN
+    IF plate !~ '^[0-9A-Z]{7}$' THEN
+        RETURN NULL;
+    END IF;
+    FOR i IN 1..7 LOOP
+        digit := ascii(substr(plate, i, 1));
+        code := code * 36 + CASE WHEN digit <= 57 THEN digit - 48 ELSE digit - 55 END;
+    END LOOP;
+    RETURN code;
+END
+$$;
+
+ALTER TABLE tb_parking_spot ADD COLUMN IF NOT EXISTS license_plate_code bigint;
+ALTER TABLE tb_parking_spot ADD COLUMN IF NOT EXISTS license_plate_unpacked varchar(7);
+
+UPDATE tb_parking_spot
+SET license_plate_code     = parking_license_plate_code(license_plate_car),
+    license_plate_unpacked = CASE WHEN parking_license_plate_code(license_plate_car) IS NULL THEN license_plate_car END
+WHERE license_plate_code IS NULL;
+
+ALTER TABLE tb_parking_spot
+    ADD CONSTRAINT uk_parking_spot_condominium_plate_code UNIQUE (condominium_id, license_plate_code);
+
+ALTER TABLE tb_parking_spot
+    ADD CONSTRAINT uk_parking_spot_condominium_plate_unpacked UNIQUE (condominium_id, license_plate_unpacked);
+
+ALTER TABLE tb_parking_spot DROP CONSTRAINT IF EXISTS uk_parking_spot_condominium_plate;
+
+COMMIT;
@@ -0,0 +1,17 @@
+-- Makes PostgreSQL the source of truth for "bookings of a spot never overlap". The service checks
+-- overlaps in memory first (VisitorReservationService), but only this constraint holds across
+-- instances; a booking rejected here surfaces as a 409 and reloads that spot's calendar.
+-- Run once after Hibernate has created tb_visitor_reservation.
+
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE tb_visitor_reservation
+    ADD CONSTRAINT ex_visitor_reservation_spot_period
+        EXCLUDE USING gist (parking_spot_id WITH =, tsrange(starts_at, ends_at, '[)') WITH &&);
+
+ALTER TABLE tb_visitor_reservation
+    ADD CONSTRAINT ck_visitor_reservation_period CHECK (starts_at < ends_at);
+
+COMMIT;
@@ -0,0 +1,57 @@
+-- Rebuilds TB_PARKING_SPOT as a table hash-partitioned by condominium_id, so every tenant-scoped
+-- query (all of them carry condominium_id) is pruned to a single partition.
+--
+-- spring.jpa.hibernate.ddl-auto=update cannot create partitioned tables: run this once, with the
+-- application stopped, before starting a release that has the condominium_id column. Rows that
+-- existed before tenancy are moved to the 'default' condominium.
+--
+-- PostgreSQL requires the partition key in every primary key and unique constraint, hence
+-- (condominium_id, id) as primary key; ids stay globally unique because they are UUIDs.
+
+BEGIN;
+
+ALTER TABLE IF EXISTS tb_parking_spot RENAME TO tb_parking_spot_legacy;
+
+CREATE TABLE tb_parking_spot (
+    id                  uuid         NOT NULL,
+    condominium_id      varchar(64)  NOT NULL,
+    parking_spot_number varchar(10)  NOT NULL,
+    license_plate_car   varchar(7)   NOT NULL,
+    brand_car           varchar(70)  NOT NULL,
+    model_car           varchar(70)  NOT NULL,
+    color_car           varchar(70)  NOT NULL,
+    registration_date   timestamp    NOT NULL,
+    responsible_name    varchar(130) NOT NULL,
+    apartment           varchar(30)  NOT NULL,
+    block               varchar(30)  NOT NULL,
+    CONSTRAINT pk_parking_spot PRIMARY KEY (condominium_id, id),
+    CONSTRAINT uk_parking_spot_condominium_number UNIQUE (condominium_id, parking_spot_number),
+    CONSTRAINT uk_parking_spot_condominium_plate UNIQUE (condominium_id, license_plate_car)
+) PARTITION BY HASH (condominium_id);
+
+CREATE TABLE tb_parking_spot_p0 PARTITION OF tb_parking_spot FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE tb_parking_spot_p1 PARTITION OF tb_parking_spot FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE tb_parking_spot_p2 PARTITION OF tb_parking_spot FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE tb_parking_spot_p3 PARTITION OF tb_parking_spot FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE tb_parking_spot_p4 PARTITION OF tb_parking_spot FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE tb_parking_spot_p5 PARTITION OF tb_parking_spot FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE tb_parking_spot_p6 PARTITION OF tb_parking_spot FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE tb_parking_spot_p7 PARTITION OF tb_parking_spot FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+CREATE INDEX ix_parking_spot_condominium_apartment_block ON tb_parking_spot (condominium_id, apartment, block);
+
+DO $$
+BEGIN
+    IF to_regclass('tb_parking_spot_legacy') IS NOT NULL THEN
+        INSERT INTO tb_parking_spot (id, condominium_id, parking_spot_number, license_plate_car, brand_car, model_car,
+                                     color_car, registration_date, responsible_name, apartment, block)
+        SELECT id, 'default', parking_spot_number, license_plate_car, brand_car, model_car,
+               color_car, registration_date, responsible_name, apartment, block
+        FROM tb_parking_spot_legacy;
+
+        DROP TABLE tb_parking_spot_legacy;
+    END IF;
+END $$;
+
+COMMIT;
+
@@ -0,0 +1,27 @@
+package com.api.parkingcontrol;
+
+import com.api.parkingcontrol.repositories.MvStoreParkingSpotStore;
+import com.api.parkingcontrol.repositories.ParkingSpotStore;
+import com.api.parkingcontrol.services.BillingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "parking-control.edge.store-file=target/edge-test/parking-spots.mv.db")
+@ActiveProfiles("edge")
+class EdgeProfileApplicationTests {
+
+	@Autowired
+	ApplicationContext context;
+
+	@Test
+	void contextLoadsWithoutDatabase() {
+		assertThat(context.getBean(ParkingSpotStore.class)).isInstanceOf(MvStoreParkingSpotStore.class);
+		assertThat(context.getBeanNamesForType(BillingService.class)).isEmpty();
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.api.parkingcontrol.configs;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TenantMetricsConfigTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Deve agrupar como other os condominios acima do limite sem descartar as medicoes")
+    void shouldTagCondominiumsPastTheLimitAsOther() {
+//        CENARIO
+        registry.config().meterFilter(new TenantMetricsConfig().condominiumTagCardinalityLimit(2));
+
+//        EXECUCAO
+        record("residencial-aurora");
+        record("residencial-bosque");
+        record("residencial-cedro");
+        record("residencial-dunas");
+        record("x".repeat(65));
+        record("residencial-aurora");
+
+//        VERIFICACAO
+        assertThat(registry.find("http.server.requests").timers())
+                .extracting(timer -> timer.getId().getTag(TenantMetricsConfig.CONDOMINIUM_TAG))
+                .containsExactlyInAnyOrder("residencial-aurora", "residencial-bosque", "other");
+        assertThat(timer("residencial-aurora").count()).isEqualTo(2);
+        assertThat(timer("other").count()).isEqualTo(3);
+        assertThat(registry.find("http.server.requests").timers()).map(Meter::getId)
+                .allMatch(id -> "GET".equals(id.getTag("method")));
+    }
+
+    private void record(String condominiumId) {
+        Timer.builder("http.server.requests")
+                .tag(TenantMetricsConfig.CONDOMINIUM_TAG, condominiumId)
+                .tag("method", "GET")
+                .register(registry)
+                .record(Duration.ofMillis(5));
+    }
+
+    private Timer timer(String condominiumId) {
+        return registry.get("http.server.requests").tag(TenantMetricsConfig.CONDOMINIUM_TAG, condominiumId).timer();
+    }
+}
@@ -0,0 +1,188 @@
+package com.api.parkingcontrol.controllers;
+
+import com.api.parkingcontrol.dtos.ParkingSpotDTO;
+import com.api.parkingcontrol.support.SqlBudgetTest;
+import com.api.parkingcontrol.support.SqlCapture;
+import com.api.parkingcontrol.support.SqlStatementRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL round trips per parking spot endpoint, against the real service and store on H2. A budget
+ * that fails lists the statements that were executed, e.g. a new SELECT in {@code updateParkingSpot}.
+ */
+@SqlBudgetTest
+public class ParkingSpotControllerSqlBudgetTest {
+
+    final String API_URL = "/parking-spot";
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    String condominiumId;
+
+    @BeforeEach
+    void setUp() {
+        condominiumId = "condominio-" + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("POST deve verificar placa, vaga e apartamento e inserir a vaga")
+    void postWithinBudget() throws Exception {
+        try (SqlCapture sql = SqlStatementRecorder.capture()) {
+            mvc.perform(post(API_URL).header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId)
+                            .contentType(MediaType.APPLICATION_JSON).content(json(createParkingSpotDTO("101"))))
+                    .andExpect(status().isCreated());
+            sql.assertWithinBudget("POST /parking-spot", 4);
+        }
+    }
+
+    @Test
+    @DisplayName("POST recusado por conflito deve parar na primeira verificacao")
+    void conflictingPostWithinBudget() throws Exception {
+        createParkingSpot("101");
+
+        try (SqlCapture sql = SqlStatementRecorder.capture()) {
+            mvc.perform(post(API_URL).header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId)
+                            .contentType(MediaType.APPLICATION_JSON).content(json(createParkingSpotDTO("101"))))
+                    .andExpect(status().isConflict());
+            sql.assertWithinBudget("POST /parking-spot (conflict)", 1);
+        }
+    }
+
+    @Test
+    @DisplayName("GET por id deve executar uma unica consulta")
+    void getByIdWithinBudget() throws Exception {
+        String id = createParkingSpot("101");
+
+        try (SqlCapture sql = SqlStatementRecorder.capture()) {
+            mvc.perform(get(API_URL + "/{id}", id).header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId))
+                    .andExpect(status().isOk());
+            sql.assertWithinBudget("GET /parking-spot/{id}", 1);
+        }
+    }
+
+    @Test
+    @DisplayName("GET paginado deve executar a consulta da pagina e a contagem")
+    void getPageWithinBudget() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createParkingSpot("10" + i);
+        }
+
+        try (SqlCapture sql = SqlStatementRecorder.capture()) {
+            mvc.perform(get(API_URL).param("size", "2").header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId))
+                    .andExpect(status().isOk());
+            sql.assertWithinBudget("GET /parking-spot", 2);
+        }
+    }
+
+    @Test
+    @DisplayName("PUT deve buscar e atualizar a vaga")
+    void putWithinBudget() throws Exception {
+        String id = createParkingSpot("101");
+        ParkingSpotDTO changes = createParkingSpotDTO("101");
+        changes.setColorCar("Red");
+
+        try (SqlCapture sql = SqlStatementRecorder.capture()) {
+            mvc.perform(put(API_URL + "/{id}", id).header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId)
+                            .contentType(MediaType.APPLICATION_JSON).content(json(changes)))
+                    .andExpect(status().isOk());
+            sql.assertWithinBudget("PUT /parking-spot/{id}", 2);
+        }
+    }
+
+    @Test
+    @DisplayName("DELETE deve buscar e remover a vaga")
+    void deleteWithinBudget() throws Exception {
+        String id = createParkingSpot("101");
+
+        try (SqlCapture sql = SqlStatementRecorder.capture()) {
+            mvc.perform(delete(API_URL + "/{id}", id).header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId))
+                    .andExpect(status().isOk());
+            sql.assertWithinBudget("DELETE /parking-spot/{id}", 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Lookup deve resolver os ids numa unica consulta, na ordem pedida")
+    void lookupWithinBudget() throws Exception {
+        String first = createParkingSpot("101");
+        String second = createParkingSpot("102");
+        String missing = UUID.randomUUID().toString();
+
+        try (SqlCapture sql = SqlStatementRecorder.capture()) {
+            mvc.perform(post(API_URL + "/lookup").header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId)
+                            .contentType(MediaType.APPLICATION_JSON).content(lookupJson(List.of(second, missing, first))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.parkingSpots[*].id", contains(second, first)))
+                    .andExpect(jsonPath("$.missingIds", contains(missing)));
+            sql.assertWithinBudget("POST /parking-spot/lookup", 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Lookup de muitos ids deve executar uma consulta por lote")
+    void largeLookupWithinBudget() throws Exception {
+        List<String> ids = new ArrayList<>();
+        ids.add(createParkingSpot("101"));
+        for (int i = 1; i < 2500; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+
+        try (SqlCapture sql = SqlStatementRecorder.capture()) {
+            mvc.perform(post(API_URL + "/lookup").header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId)
+                            .contentType(MediaType.APPLICATION_JSON).content(lookupJson(ids)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.parkingSpots.length()").value(1))
+                    .andExpect(jsonPath("$.missingIds.length()").value(2499));
+            sql.assertWithinBudget("POST /parking-spot/lookup (2500 ids)", 3);
+        }
+    }
+
+    private String createParkingSpot(String apartment) throws Exception {
+        String body = mvc.perform(post(API_URL).header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId)
+                        .contentType(MediaType.APPLICATION_JSON).content(json(createParkingSpotDTO(apartment))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private String lookupJson(List<String> ids) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("ids", ids));
+    }
+
+    private String json(ParkingSpotDTO dto) throws Exception {
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private ParkingSpotDTO createParkingSpotDTO(String apartment) {
+        ParkingSpotDTO dto = new ParkingSpotDTO();
+        dto.setParkingSpotNumber("3" + apartment);
+        dto.setLicensePlateCar("KND0" + apartment);
+        dto.setBrandCar("Hyundai");
+        dto.setModelCar("HB20");
+        dto.setColorCar("Blue");
+        dto.setResponsibleName("Szylzen Silva");
+        dto.setApartment(apartment);
+        dto.setBlock("A");
+        return dto;
+    }
+}
@@ -14,11 +14,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.assertj.core.api.Assertions;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -34,6 +36,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -85,7 +88,7 @@ public class ParkingSpotControllerTest {
         ParkingSpotDTO parkingSpotDTO = createParkingStopDTO();
         String json = new ObjectMapper().writeValueAsString(parkingSpotDTO);
 
-        BDDMockito.given(parkingSpotService.existsByLicensePlateCar(Mockito.any())).willReturn(true);
+        BDDMockito.given(parkingSpotService.existsByLicensePlateCar(Mockito.any(), Mockito.any())).willReturn(true);
 
         MockHttpServletRequestBuilder request = buildPostMockMvcRequestBuilders(json);
 
@@ -107,7 +110,7 @@ public class ParkingSpotControllerTest {
         ParkingSpotDTO parkingSpotDTO = createParkingStopDTO();
         String json = new ObjectMapper().writeValueAsString(parkingSpotDTO);
 
-        BDDMockito.given(parkingSpotService.existsByParkingSpotNumber(Mockito.any())).willReturn(true);
+        BDDMockito.given(parkingSpotService.existsByParkingSpotNumber(Mockito.any(), Mockito.any())).willReturn(true);
 
         MockHttpServletRequestBuilder request = buildPostMockMvcRequestBuilders(json);
 
@@ -129,7 +132,7 @@ public class ParkingSpotControllerTest {
         ParkingSpotDTO parkingSpotDTO = createParkingStopDTO();
         String json = new ObjectMapper().writeValueAsString(parkingSpotDTO);
 
-        BDDMockito.given(parkingSpotService.existsByApartmentAndBlock(parkingSpotDTO.getApartment(), parkingSpotDTO.getBlock())).willReturn(true);
+        BDDMockito.given(parkingSpotService.existsByApartmentAndBlock(ParkingSpotController.DEFAULT_CONDOMINIUM, parkingSpotDTO.getApartment(), parkingSpotDTO.getBlock())).willReturn(true);
 
         MockHttpServletRequestBuilder request = buildPostMockMvcRequestBuilders(json);
 
@@ -150,7 +153,7 @@ public class ParkingSpotControllerTest {
 //        Cenario
     ParkingSpotModel parkingSpotModel = createParkingSpotModel(UUID.randomUUID());
 
-    BDDMockito.given(parkingSpotService.findAll(Mockito.any(Pageable.class)))
+    BDDMockito.given(parkingSpotService.findAll(Mockito.anyString(), Mockito.any(Pageable.class)))
             .willReturn(new PageImpl<ParkingSpotModel>(List.of(parkingSpotModel), PageRequest.of(0, 10), 1));
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -174,7 +177,7 @@ public class ParkingSpotControllerTest {
         UUID id = UUID.randomUUID();
         ParkingSpotModel parkingSpotModel = createParkingSpotModel(id);
 
-        BDDMockito.given(parkingSpotService.findById(id)).willReturn(Optional.of(parkingSpotModel));
+        BDDMockito.given(parkingSpotService.findById(ParkingSpotController.DEFAULT_CONDOMINIUM, id)).willReturn(Optional.of(parkingSpotModel));
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .get(API_URL + '/' + id)
@@ -190,7 +193,7 @@ public class ParkingSpotControllerTest {
     @DisplayName("Deve retornar error quando tentar encontrar um parking spot inexistente")
     void shouldErrorFindByIdNotFound() throws Exception {
         UUID id = UUID.randomUUID();
-        BDDMockito.given(parkingSpotService.findById(Mockito.any())).willReturn(Optional.empty());
+        BDDMockito.given(parkingSpotService.findById(Mockito.any(), Mockito.any())).willReturn(Optional.empty());
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .get(API_URL + '/' + id)
@@ -209,7 +212,7 @@ public class ParkingSpotControllerTest {
         ParkingSpotModel parkingSpotModel = createParkingSpotModel(id);
         Optional<ParkingSpotModel> optional = Optional.of(parkingSpotModel);
 
-        BDDMockito.given(parkingSpotService.findById(id)).willReturn(optional);
+        BDDMockito.given(parkingSpotService.findById(ParkingSpotController.DEFAULT_CONDOMINIUM, id)).willReturn(optional);
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .delete(API_URL + '/' + id)
@@ -226,7 +229,7 @@ public class ParkingSpotControllerTest {
     void shouldErroTryDeleteParkingSpotNonexistent() throws Exception {
         UUID id = UUID.randomUUID();
 
-        BDDMockito.given(parkingSpotService.findById(id)).willReturn(Optional.empty());
+        BDDMockito.given(parkingSpotService.findById(ParkingSpotController.DEFAULT_CONDOMINIUM, id)).willReturn(Optional.empty());
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .delete(API_URL + "/" + id)
@@ -247,7 +250,7 @@ public class ParkingSpotControllerTest {
         UUID id = UUID.randomUUID();
 
         ParkingSpotModel parkingSpotModel = createParkingSpotModel(id);
-        BDDMockito.given(parkingSpotService.findById(id)).willReturn(Optional.of(parkingSpotModel));
+        BDDMockito.given(parkingSpotService.findById(ParkingSpotController.DEFAULT_CONDOMINIUM, id)).willReturn(Optional.of(parkingSpotModel));
 
         parkingSpotModel.setParkingSpotNumber("400B");
 
@@ -276,7 +279,7 @@ public class ParkingSpotControllerTest {
 
 //        CENARIO
         UUID id = UUID.randomUUID();
-        BDDMockito.given(parkingSpotService.findById(id)).willReturn(Optional.empty());
+        BDDMockito.given(parkingSpotService.findById(ParkingSpotController.DEFAULT_CONDOMINIUM, id)).willReturn(Optional.empty());
 
         ParkingSpotDTO dto = createParkingStopDTO();
         String json = new ObjectMapper().writeValueAsString(dto);
@@ -297,6 +300,93 @@ public class ParkingSpotControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Deve usar o condominio informado no header para buscar e salvar")
+    void shouldScopeRequestsByCondominiumHeader() throws Exception {
+//        CENARIO
+        String condominiumId = "residencial-aurora";
+        ParkingSpotDTO parkingSpotDTO = createParkingStopDTO();
+        String json = new ObjectMapper().writeValueAsString(parkingSpotDTO);
+
+        BDDMockito.given(parkingSpotService.save(Mockito.any(ParkingSpotModel.class))).willReturn(createParkingSpotModel(UUID.randomUUID()));
+
+        MockHttpServletRequestBuilder request = buildPostMockMvcRequestBuilders(json)
+                .header(ParkingSpotController.CONDOMINIUM_HEADER, condominiumId);
+
+//        EXECUCAO
+        mvc.perform(request).andExpect(status().isCreated());
+
+//        VERIFICACAO
+        Mockito.verify(parkingSpotService).existsByLicensePlateCar(condominiumId, parkingSpotDTO.getLicensePlateCar());
+        Mockito.verify(parkingSpotService).existsByParkingSpotNumber(condominiumId, parkingSpotDTO.getParkingSpotNumber());
+        Mockito.verify(parkingSpotService).existsByApartmentAndBlock(condominiumId, parkingSpotDTO.getApartment(), parkingSpotDTO.getBlock());
+        Mockito.verify(parkingSpotService).save(Mockito.argThat(model -> condominiumId.equals(model.getCondominiumId())));
+    }
+
+    @Test
+    @DisplayName("Deve retornar not found ao buscar um parking spot de outro condominio")
+    void shouldNotFindParkingSpotFromAnotherCondominium() throws Exception {
+        UUID id = UUID.randomUUID();
+        BDDMockito.given(parkingSpotService.findById(ParkingSpotController.DEFAULT_CONDOMINIUM, id))
+                .willReturn(Optional.of(createParkingSpotModel(id)));
+        BDDMockito.given(parkingSpotService.findById("residencial-aurora", id)).willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API_URL + '/' + id)
+                .header(ParkingSpotController.CONDOMINIUM_HEADER, "residencial-aurora")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Deve retornar bad request quando o condominio passar do tamanho maximo")
+    void shouldReturnBadRequestWhenCondominiumTooLong() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API_URL)
+                .header(ParkingSpotController.CONDOMINIUM_HEADER, "c".repeat(65))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(parkingSpotService);
+    }
+
+    @Test
+    @DisplayName("Deve retornar bad request ao buscar uma lista de ids vazia")
+    void shouldReturnBadRequestWhenLookupHasNoIds() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API_URL + "/lookup")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[]}");
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(parkingSpotService);
+    }
+
+    @Test
+    @DisplayName("Deve falhar o lookup sem escrever resposta quando um lote da consulta falhar")
+    void shouldNotCommitLookupResponseWhenChunkFails() {
+        BDDMockito.given(parkingSpotService.lookup(Mockito.eq(ParkingSpotController.DEFAULT_CONDOMINIUM), Mockito.anyList(), Mockito.any()))
+                .willAnswer(invocation -> {
+                    invocation.<Consumer<ParkingSpotModel>>getArgument(2).accept(createParkingSpotModel(UUID.randomUUID()));
+                    throw new DataAccessResourceFailureException("connection lost in the second chunk");
+                });
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API_URL + "/lookup")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[\"" + UUID.randomUUID() + "\"]}");
+
+        Assertions.assertThatThrownBy(() -> mvc.perform(request))
+                .hasCauseInstanceOf(DataAccessResourceFailureException.class);
+    }
+
     private MockHttpServletRequestBuilder buildPostMockMvcRequestBuilders(String json) {
         return MockMvcRequestBuilders
                 .post(API_URL)
@@ -325,6 +415,7 @@ public class ParkingSpotControllerTest {
 
         BeanUtils.copyProperties(dto, parkingSpotModel);
 
+        parkingSpotModel.setCondominiumId(ParkingSpotController.DEFAULT_CONDOMINIUM);
         parkingSpotModel.setRegistrationDate(LocalDateTime.now(ZoneId.of("UTC")));
         parkingSpotModel.setId(id);
 
@@ -0,0 +1,122 @@
+package com.api.parkingcontrol.datasources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReadReplicaRoutingDataSourceTest {
+
+    DataSource primary = Mockito.mock(DataSource.class);
+    DataSource replicaA = Mockito.mock(DataSource.class);
+    DataSource replicaB = Mockito.mock(DataSource.class);
+
+    Connection primaryConnection = Mockito.mock(Connection.class);
+    Connection replicaAConnection = Mockito.mock(Connection.class);
+    Connection replicaBConnection = Mockito.mock(Connection.class);
+
+    ReadReplicaRoutingDataSource dataSource = new ReadReplicaRoutingDataSource(primary, List.of(replicaA, replicaB), Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesTracker.unpin();
+    }
+
+    @Test
+    @DisplayName("Deve usar o primario fora de transacoes somente leitura")
+    void shouldUsePrimaryForWrites() throws SQLException {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        Mockito.verifyNoInteractions(replicaA, replicaB);
+    }
+
+    @Test
+    @DisplayName("Deve distribuir leituras entre as replicas")
+    void shouldRoundRobinReadsAcrossReplicas() throws SQLException {
+        Mockito.when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        Mockito.when(replicaB.getConnection()).thenReturn(replicaBConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaAConnection);
+        assertThat(dataSource.getConnection()).isSameAs(replicaBConnection);
+
+        Mockito.verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("Deve ler do primario quando o cliente escreveu recentemente")
+    void shouldReadFromPrimaryWhenPinned() throws SQLException {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadYourWritesTracker.pinPrimary();
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        Mockito.verifyNoInteractions(replicaA, replicaB);
+    }
+
+    @Test
+    @DisplayName("Deve pular replica indisponivel e cair no primario quando nenhuma responder")
+    void shouldFailoverToPrimary() throws SQLException {
+        Mockito.when(replicaA.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available, request timed out"));
+        Mockito.when(replicaB.getConnection()).thenReturn(replicaBConnection).thenThrow(new SQLException("Connection refused", "08001"));
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaBConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+//        Replicas em cooldown nao devem ser consultadas novamente
+        Mockito.verify(replicaA, Mockito.times(1)).getConnection();
+        Mockito.verify(replicaB, Mockito.times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Deve rotear conexoes com credenciais como as demais")
+    void shouldRouteConnectionsWithCredentials() throws SQLException {
+        Mockito.when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+        Mockito.when(replicaA.getConnection("reporting", "secret")).thenReturn(replicaAConnection);
+
+        assertThat(dataSource.getConnection("reporting", "secret")).isSameAs(primaryConnection);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(dataSource.getConnection("reporting", "secret")).isSameAs(replicaAConnection);
+
+        ReadYourWritesTracker.pinPrimary();
+        assertThat(dataSource.getConnection("reporting", "secret")).isSameAs(primaryConnection);
+
+        Mockito.verify(primary, Mockito.never()).getConnection();
+        Mockito.verifyNoInteractions(replicaB);
+    }
+
+    @Test
+    @DisplayName("Deve repassar erros que nao sao de conexao sem tirar a replica de rotacao")
+    void shouldRethrowNonConnectionErrorsWithoutCooldown() throws SQLException {
+        Mockito.when(replicaA.getConnection("reporting", "secret")).thenThrow(new SQLFeatureNotSupportedException());
+        Mockito.when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        Mockito.when(replicaB.getConnection()).thenReturn(replicaBConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThatThrownBy(() -> dataSource.getConnection("reporting", "secret")).isInstanceOf(SQLFeatureNotSupportedException.class);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaBConnection);
+        assertThat(dataSource.getConnection()).isSameAs(replicaAConnection);
+        Mockito.verifyNoInteractions(primary);
+    }
+}
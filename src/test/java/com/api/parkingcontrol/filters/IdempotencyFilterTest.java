@@ -0,0 +1,132 @@
+package com.api.parkingcontrol.filters;
+
+import com.api.parkingcontrol.controllers.ParkingSpotController;
+import com.api.parkingcontrol.dtos.ParkingSpotDTO;
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import com.api.parkingcontrol.services.IdempotencyService;
+import com.api.parkingcontrol.services.ParkingSpotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class IdempotencyFilterTest {
+
+    final String API_URL = "/parking-spot";
+
+    ParkingSpotService parkingSpotService = Mockito.mock(ParkingSpotService.class);
+
+    MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyService idempotencyService = new IdempotencyService(null, 100, Duration.ofHours(1),
+                Duration.ofSeconds(5), Duration.ofSeconds(30), Clock.systemUTC());
+        mvc = MockMvcBuilders.standaloneSetup(new ParkingSpotController(parkingSpotService))
+                .addFilters(new IdempotencyFilter(idempotencyService, 4096))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve responder a repeticao do POST sem chamar o service")
+    void shouldReplayRetriedPost() throws Exception {
+//        CENARIO
+        ParkingSpotModel saved = new ParkingSpotModel();
+        saved.setId(UUID.randomUUID());
+        saved.setParkingSpotNumber("101A");
+        BDDMockito.given(parkingSpotService.save(Mockito.any(ParkingSpotModel.class))).willReturn(saved);
+
+        String json = new ObjectMapper().writeValueAsString(createParkingSpotDTO());
+
+//        EXECUCAO
+        mvc.perform(post(json, "retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        BDDMockito.given(parkingSpotService.existsByLicensePlateCar(Mockito.any(), Mockito.any())).willReturn(true);
+
+        mvc.perform(post(json, "retry-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("id").value(saved.getId().toString()));
+
+//        VERIFICACAO
+        Mockito.verify(parkingSpotService, Mockito.times(1)).save(Mockito.any(ParkingSpotModel.class));
+        Mockito.verify(parkingSpotService, Mockito.times(1)).existsByLicensePlateCar(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a mesma chave com outro corpo")
+    void shouldRejectKeyReuseWithDifferentBody() throws Exception {
+        BDDMockito.given(parkingSpotService.save(Mockito.any(ParkingSpotModel.class))).willReturn(new ParkingSpotModel());
+        ParkingSpotDTO dto = createParkingSpotDTO();
+
+        mvc.perform(post(new ObjectMapper().writeValueAsString(dto), "retry-1"))
+                .andExpect(status().isCreated());
+
+        dto.setParkingSpotNumber("102A");
+        mvc.perform(post(new ObjectMapper().writeValueAsString(dto), "retry-1"))
+                .andExpect(status().isUnprocessableEntity());
+
+        Mockito.verify(parkingSpotService, Mockito.times(1)).save(Mockito.any(ParkingSpotModel.class));
+    }
+
+    @Test
+    @DisplayName("Deve executar normalmente quando nao houver Idempotency-Key")
+    void shouldExecuteEveryRequestWithoutKey() throws Exception {
+        BDDMockito.given(parkingSpotService.save(Mockito.any(ParkingSpotModel.class))).willReturn(new ParkingSpotModel());
+        String json = new ObjectMapper().writeValueAsString(createParkingSpotDTO());
+
+        mvc.perform(post(json, null)).andExpect(status().isCreated());
+        mvc.perform(post(json, null)).andExpect(status().isCreated());
+
+        Mockito.verify(parkingSpotService, Mockito.times(2)).save(Mockito.any(ParkingSpotModel.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 413 o corpo maior que o limite sem chamar o service")
+    void shouldRejectBodyOverLimit() throws Exception {
+        String json = "{\"responsibleName\":\"" + "x".repeat(5000) + "\"}";
+
+        mvc.perform(post(json, "large-1"))
+                .andExpect(status().isPayloadTooLarge());
+
+        Mockito.verifyNoInteractions(parkingSpotService);
+    }
+
+    private MockHttpServletRequestBuilder post(String json, String idempotencyKey) {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API_URL)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+        return idempotencyKey == null ? request : request.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+    }
+
+    private ParkingSpotDTO createParkingSpotDTO() {
+        ParkingSpotDTO dto = new ParkingSpotDTO();
+
+        dto.setParkingSpotNumber("101A");
+        dto.setBrandCar("Hyundai");
+        dto.setModelCar("HB20");
+        dto.setColorCar("Blue");
+        dto.setBlock("A");
+        dto.setResponsibleName("Szylzen Silva");
+        dto.setLicensePlateCar("KND0091");
+        dto.setApartment("101");
+        return dto;
+    }
+}
@@ -0,0 +1,29 @@
+package com.api.parkingcontrol.filters;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadOnlyPostsTest {
+
+    @Test
+    @DisplayName("Deve tratar como leitura apenas o POST do lookup, com ou sem barra final e context path")
+    void shouldMatchOnlyTheLookupPath() {
+        assertThat(ReadOnlyPosts.matches(request("POST", "", "/parking-spot/lookup"))).isTrue();
+        assertThat(ReadOnlyPosts.matches(request("POST", "", "/parking-spot/lookup/"))).isTrue();
+        assertThat(ReadOnlyPosts.matches(request("POST", "/api", "/api/parking-spot/lookup"))).isTrue();
+
+        assertThat(ReadOnlyPosts.matches(request("GET", "", "/parking-spot/lookup"))).isFalse();
+        assertThat(ReadOnlyPosts.matches(request("POST", "", "/parking-session/lookup"))).isFalse();
+        assertThat(ReadOnlyPosts.matches(request("POST", "", "/parking-spot/lookup/extra"))).isFalse();
+        assertThat(ReadOnlyPosts.matches(request("POST", "", "/parking-spot"))).isFalse();
+    }
+
+    private MockHttpServletRequest request(String method, String contextPath, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setContextPath(contextPath);
+        return request;
+    }
+}
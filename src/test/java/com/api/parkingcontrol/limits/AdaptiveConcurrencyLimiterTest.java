@@ -0,0 +1,66 @@
+package com.api.parkingcontrol.limits;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("Deve rejeitar quando o limite de requisicoes simultaneas for atingido")
+    void shouldRejectWhenLimitReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, Duration.ofMillis(100));
+
+        AdaptiveConcurrencyLimiter.Token first = limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Token second = limiter.tryAcquire();
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(limiter.getInflight()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve aumentar o limite quando as requisicoes forem rapidas e o limite estiver em uso")
+    void shouldIncreaseLimitWhenFast() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, Duration.ofMillis(100));
+
+        limiter.tryAcquire().release(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+//        Com o limite subutilizado ele nao deve crescer
+        limiter.tryAcquire().release(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite quando a latencia passar do limiar")
+    void shouldDecreaseLimitWhenSlow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, 0.5, Duration.ofMillis(100));
+
+        limiter.tryAcquire().release(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.tryAcquire().release(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.tryAcquire().release(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar liberacoes repetidas do mesmo token")
+    void shouldIgnoreDoubleRelease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, Duration.ofMillis(100));
+
+        AdaptiveConcurrencyLimiter.Token token = limiter.tryAcquire();
+        token.release();
+        token.release();
+
+        assertThat(limiter.getInflight()).isZero();
+    }
+}
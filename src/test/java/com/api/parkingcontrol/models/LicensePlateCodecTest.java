@@ -0,0 +1,52 @@
+package com.api.parkingcontrol.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LicensePlateCodecTest {
+
+    @Test
+    @DisplayName("Deve compactar e restaurar placas Mercosul e antigas")
+    void shouldRoundTripPlates() {
+        for (String plate : List.of("KND0091", "BRA2E19", "ZZZ9Z99", "AAA0000")) {
+            Long code = LicensePlateCodec.encode(plate);
+
+            assertThat(code).isNotNull();
+            assertThat(LicensePlateCodec.decode(code)).isEqualTo(plate);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gerar codigos distintos para placas distintas")
+    void shouldKeepPlatesDistinct() {
+        assertThat(LicensePlateCodec.encode("BRA2E19")).isNotEqualTo(LicensePlateCodec.encode("BRA2E18"));
+        assertThat(LicensePlateCodec.encode("ABC1234")).isNotEqualTo(LicensePlateCodec.encode("ABC1C34"));
+    }
+
+    @Test
+    @DisplayName("Nao deve compactar placas fora do formato")
+    void shouldNotEncodeUnsupportedPlates() {
+        assertThat(LicensePlateCodec.encode(null)).isNull();
+        assertThat(LicensePlateCodec.encode("ABC123")).isNull();
+        assertThat(LicensePlateCodec.encode("abc1234")).isNull();
+        assertThat(LicensePlateCodec.encode("ABC-123")).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve manter o codigo da placa sincronizado com a placa do modelo")
+    void shouldKeepPlateCodeInSync() {
+        ParkingSpotModel model = new ParkingSpotModel();
+
+        model.setLicensePlateCar("KND0091");
+        assertThat(model.getLicensePlateCode()).isEqualTo(LicensePlateCodec.encode("KND0091"));
+        assertThat(model.getLicensePlateUnpacked()).isNull();
+
+        model.setLicensePlateCar("kn0091");
+        assertThat(model.getLicensePlateCode()).isNull();
+        assertThat(model.getLicensePlateUnpacked()).isEqualTo("kn0091");
+    }
+}
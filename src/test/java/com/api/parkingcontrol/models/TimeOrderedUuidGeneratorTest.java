@@ -0,0 +1,39 @@
+package com.api.parkingcontrol.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    @DisplayName("Deve gerar ids na ordem de criacao")
+    void shouldGenerateTimeOrderedIds() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.next());
+        }
+
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids).allSatisfy(id -> {
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+        });
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(unsignedCompare(ids.get(i - 1), ids.get(i))).isNegative();
+        }
+    }
+
+    /**
+     * Byte order as compared by PostgreSQL; UUID.compareTo compares signed longs.
+     */
+    private static int unsignedCompare(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
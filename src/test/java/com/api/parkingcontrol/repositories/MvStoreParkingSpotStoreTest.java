@@ -0,0 +1,204 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import org.h2.mvstore.MVMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MvStoreParkingSpotStoreTest {
+
+    static final String CONDOMINIUM = "residencial-aurora";
+
+    @TempDir
+    Path directory;
+
+    MvStoreParkingSpotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Deve encontrar a vaga salva pelo id e pelos indices secundarios")
+    void shouldFindSavedSpotByIdAndIndexes() {
+//        CENARIO
+        ParkingSpotModel saved = store.save(spot(CONDOMINIUM, "300A", "KND0091", "101", "A"));
+
+//        EXECUCAO / VERIFICACAO
+        assertThat(saved.getId()).isNotNull();
+        assertThat(store.findById(CONDOMINIUM, saved.getId())).get()
+                .extracting(ParkingSpotModel::getParkingSpotNumber, ParkingSpotModel::getLicensePlateCode, ParkingSpotModel::getRegistrationDate)
+                .containsExactly("300A", saved.getLicensePlateCode(), saved.getRegistrationDate());
+        assertThat(store.findById("residencial-bosque", saved.getId())).isEmpty();
+        assertThat(store.findAllById(CONDOMINIUM, List.of(UUID.randomUUID(), saved.getId())))
+                .extracting(ParkingSpotModel::getId).containsExactly(saved.getId());
+        assertThat(store.findAllById("residencial-bosque", List.of(saved.getId()))).isEmpty();
+        assertThat(store.existsByLicensePlateCar(CONDOMINIUM, "KND0091")).isTrue();
+        assertThat(store.existsByParkingSpotNumber(CONDOMINIUM, "300A")).isTrue();
+        assertThat(store.existsByApartmentAndBlock(CONDOMINIUM, "101", "A")).isTrue();
+        assertThat(store.existsByApartmentAndBlock(CONDOMINIUM, "101", "AB")).isFalse();
+        assertThat(store.existsByParkingSpotNumber("residencial-bosque", "300A")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve mover os indices ao atualizar e remove-los ao excluir a vaga")
+    void shouldMaintainIndexesOnUpdateAndDelete() {
+//        CENARIO
+        ParkingSpotModel saved = store.save(spot(CONDOMINIUM, "300A", "KND0091", "101", "A"));
+
+//        EXECUCAO
+        saved.setParkingSpotNumber("301B");
+        saved.setLicensePlateCar("ABC1D23");
+        store.save(saved);
+
+//        VERIFICACAO
+        assertThat(store.existsByParkingSpotNumber(CONDOMINIUM, "300A")).isFalse();
+        assertThat(store.existsByLicensePlateCar(CONDOMINIUM, "KND0091")).isFalse();
+        assertThat(store.existsByParkingSpotNumber(CONDOMINIUM, "301B")).isTrue();
+        assertThat(store.existsByLicensePlateCar(CONDOMINIUM, "ABC1D23")).isTrue();
+
+        store.delete(saved);
+        assertThat(store.findById(CONDOMINIUM, saved.getId())).isEmpty();
+        assertThat(store.existsByParkingSpotNumber(CONDOMINIUM, "301B")).isFalse();
+        assertThat(store.existsByApartmentAndBlock(CONDOMINIUM, "101", "A")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve recusar placa ou numero de vaga repetidos no mesmo condominio")
+    void shouldRejectDuplicateKeys() {
+//        CENARIO
+        store.save(spot(CONDOMINIUM, "300A", "KND0091", "101", "A"));
+
+//        EXECUCAO / VERIFICACAO
+        assertThatThrownBy(() -> store.save(spot(CONDOMINIUM, "300A", "ABC1D23", "102", "A")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> store.save(spot(CONDOMINIUM, "300B", "KND0091", "102", "A")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(store.save(spot("residencial-bosque", "300A", "KND0091", "101", "A")).getId()).isNotNull();
+        assertThat(store.existsByApartmentAndBlock(CONDOMINIUM, "102", "A")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve paginar as vagas do condominio em ordem de id ou de outra propriedade")
+    void shouldPageSpotsOfCondominium() {
+//        CENARIO
+        for (int i = 0; i < 5; i++) {
+            store.save(spot(CONDOMINIUM, "10" + (4 - i), "KND000" + i, "10" + i, "A"));
+        }
+        store.save(spot("residencial-bosque", "999", "ZZZ9999", "1", "B"));
+
+//        EXECUCAO
+        Page<ParkingSpotModel> byId = store.findAll(CONDOMINIUM, PageRequest.of(1, 2, Sort.by("id")));
+        Page<ParkingSpotModel> byIdDescending = store.findAll(CONDOMINIUM, PageRequest.of(0, 2, Sort.by("id").descending()));
+        Page<ParkingSpotModel> byNumber = store.findAll(CONDOMINIUM, PageRequest.of(0, 2, Sort.by("parkingSpotNumber")));
+        Page<ParkingSpotModel> pastTheEnd = store.findAll(CONDOMINIUM, PageRequest.of(3, 2));
+
+//        VERIFICACAO
+        assertThat(byId.getTotalElements()).isEqualTo(5);
+        assertThat(byId.getContent()).extracting(ParkingSpotModel::getParkingSpotNumber).containsExactly("102", "101");
+        assertThat(byIdDescending.getContent()).extracting(ParkingSpotModel::getParkingSpotNumber).containsExactly("100", "101");
+        assertThat(byNumber.getContent()).extracting(ParkingSpotModel::getParkingSpotNumber).containsExactly("100", "101");
+        assertThat(pastTheEnd.getContent()).isEmpty();
+        assertThat(pastTheEnd.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Deve manter os dados confirmados e descartar escritas incompletas apos uma queda")
+    void shouldRecoverLastCommitAfterCrash() {
+//        CENARIO
+        ParkingSpotModel saved = store.save(spot(CONDOMINIUM, "300A", "KND0091", "101", "A"));
+        ParkingSpotModel torn = spot(CONDOMINIUM, "400A", "ABC1D23", "102", "A");
+        torn.setId(UUID.randomUUID());
+        MVMap<String, byte[]> spots = store.store().openMap("spots");
+        spots.put(torn.getId().toString(), MvStoreParkingSpotStore.encode(torn));
+
+//        EXECUCAO
+        store.store().closeImmediately();
+        store = open();
+
+//        VERIFICACAO
+        assertThat(store.findById(CONDOMINIUM, saved.getId())).isPresent();
+        assertThat(store.findById(CONDOMINIUM, torn.getId())).isEmpty();
+        assertThat(store.existsByLicensePlateCar(CONDOMINIUM, "KND0091")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir os indices que nao correspondem as vagas armazenadas")
+    void shouldRebuildInconsistentIndexes() {
+//        CENARIO
+        ParkingSpotModel orphan = spot(CONDOMINIUM, "400A", "ABC1D23", "102", "B");
+        orphan.setId(UUID.randomUUID());
+        MVMap<String, byte[]> spots = store.store().openMap("spots");
+        spots.put(orphan.getId().toString(), MvStoreParkingSpotStore.encode(orphan));
+        store.store().commit();
+
+//        EXECUCAO
+        store.close();
+        store = open();
+
+//        VERIFICACAO
+        assertThat(store.existsByParkingSpotNumber(CONDOMINIUM, "400A")).isTrue();
+        assertThat(store.existsByApartmentAndBlock(CONDOMINIUM, "102", "B")).isTrue();
+        assertThat(store.findAll(CONDOMINIUM, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve compactar o arquivo sem perder vagas")
+    void shouldCompactWithoutLosingSpots() {
+//        CENARIO
+        ParkingSpotModel saved = store.save(spot(CONDOMINIUM, "300A", "KND0091", "101", "A"));
+        for (int i = 0; i < 200; i++) {
+            saved.setResponsibleName("Responsavel " + i);
+            store.save(saved);
+        }
+
+//        EXECUCAO
+        store.compact();
+        store.close();
+        store = open();
+
+//        VERIFICACAO
+        assertThat(store.findById(CONDOMINIUM, saved.getId())).get()
+                .extracting(ParkingSpotModel::getResponsibleName).isEqualTo("Responsavel 199");
+    }
+
+    private MvStoreParkingSpotStore open() {
+        return new MvStoreParkingSpotStore(directory.resolve("parking-spots.mv.db").toString(), 4, false, 80);
+    }
+
+    static ParkingSpotModel spot(String condominiumId, String number, String plate, String apartment, String block) {
+        var spot = new ParkingSpotModel();
+        spot.setCondominiumId(condominiumId);
+        spot.setParkingSpotNumber(number);
+        spot.setLicensePlateCar(plate);
+        spot.setBrandCar("Hyundai");
+        spot.setModelCar("HB20");
+        spot.setColorCar("Blue");
+        spot.setResponsibleName("Szylzen Silva");
+        spot.setApartment(apartment);
+        spot.setBlock(block);
+        spot.setRegistrationDate(LocalDateTime.of(2024, 3, 10, 14, 7, 42, 123_000));
+        return spot;
+    }
+}
@@ -0,0 +1,65 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unique keys of the schema Hibernate generates, as used by ddl-auto and the H2 tests.
+ */
+@DataJpaTest
+public class ParkingSpotRepositoryTest {
+
+    static final String CONDOMINIUM = "residencial-aurora";
+
+    @Autowired
+    ParkingSpotRepository repository;
+
+    @Test
+    @DisplayName("Deve recusar placa nao compactavel repetida no mesmo condominio")
+    void shouldRejectDuplicateUnpackedPlate() {
+//        CENARIO
+        repository.saveAndFlush(createParkingSpotModel(CONDOMINIUM, "101", "kn-0091"));
+        repository.saveAndFlush(createParkingSpotModel("residencial-bosque", "101", "kn-0091"));
+        repository.saveAndFlush(createParkingSpotModel(CONDOMINIUM, "102", "KND0091"));
+        repository.saveAndFlush(createParkingSpotModel(CONDOMINIUM, "103", "kn-0092"));
+
+//        EXECUCAO / VERIFICACAO
+        assertThat(repository.existsByCondominiumIdAndLicensePlateUnpacked(CONDOMINIUM, "kn-0091")).isTrue();
+        assertThatThrownBy(() -> repository.saveAndFlush(createParkingSpotModel(CONDOMINIUM, "104", "kn-0091")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Deve recusar placa compactavel repetida no mesmo condominio")
+    void shouldRejectDuplicatePackedPlate() {
+        repository.saveAndFlush(createParkingSpotModel(CONDOMINIUM, "101", "KND0091"));
+
+        assertThatThrownBy(() -> repository.saveAndFlush(createParkingSpotModel(CONDOMINIUM, "102", "KND0091")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private ParkingSpotModel createParkingSpotModel(String condominiumId, String apartment, String plate) {
+        ParkingSpotModel model = new ParkingSpotModel();
+        model.setCondominiumId(condominiumId);
+        model.setParkingSpotNumber(apartment + "A");
+        model.setBrandCar("Hyundai");
+        model.setModelCar("HB20");
+        model.setColorCar("Blue");
+        model.setBlock("A");
+        model.setResponsibleName("Szylzen Silva");
+        model.setLicensePlateCar(plate);
+        model.setApartment(apartment);
+        model.setRegistrationDate(LocalDateTime.now(ZoneId.of("UTC")));
+        return model;
+    }
+}
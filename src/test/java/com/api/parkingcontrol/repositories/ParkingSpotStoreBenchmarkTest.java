@@ -0,0 +1,111 @@
+package com.api.parkingcontrol.repositories;
+
+import com.api.parkingcontrol.support.Benchmark;
+import com.api.parkingcontrol.support.BenchmarkTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The operations behind the parking spot endpoints (one write per request, the three existence
+ * checks, lookup by id and a page of the listing) on the JPA store and on the edge MVStore.
+ * The JPA store runs on in-memory H2, so its numbers leave out the network round trip to
+ * PostgreSQL. Run with {@code mvn test -Dtest=ParkingSpotStoreBenchmarkTest -Dbenchmarks=true}.
+ */
+@BenchmarkTest
+@DataJpaTest(showSql = false)
+@Import(JpaParkingSpotStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ParkingSpotStoreBenchmarkTest {
+
+    static final String CONDOMINIUM = "residencial-aurora";
+    static final int SPOTS = 20_000;
+    static final int LOOKUPS = 200_000;
+
+    @Autowired
+    JpaParkingSpotStore jpaParkingSpotStore;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Benchmark: armazenamento JPA x MVStore")
+    void compareStores() throws Exception {
+        run("JPA, H2 in memory", jpaParkingSpotStore);
+        try (var store = new MvStoreParkingSpotStore(directory.resolve("sync.mv.db").toString(), 16, true, 80)) {
+            run("MVStore, sync on commit", store);
+        }
+        try (var store = new MvStoreParkingSpotStore(directory.resolve("nosync.mv.db").toString(), 16, false, 80)) {
+            run("MVStore, no sync", store);
+        }
+    }
+
+    private void run(String scenario, ParkingSpotStore store) throws Exception {
+        List<UUID> ids = new ArrayList<>(SPOTS);
+        Benchmark.run(scenario + ", save", 1, 1, "saves", () -> {
+            for (int i = 0; i < SPOTS; i++) {
+                ids.add(store.save(MvStoreParkingSpotStoreTest.spot(CONDOMINIUM, "N" + i, plate(i), "A" + i, "B" + (i % 20))).getId());
+            }
+            return SPOTS;
+        });
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Benchmark.run(scenario + ", exists", 3, 1, "checks", () -> {
+            int found = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                int spot = random.nextInt(SPOTS * 2);
+                switch (i % 3) {
+                    case 0:
+                        found += store.existsByLicensePlateCar(CONDOMINIUM, plate(spot)) ? 1 : 0;
+                        break;
+                    case 1:
+                        found += store.existsByParkingSpotNumber(CONDOMINIUM, "N" + spot) ? 1 : 0;
+                        break;
+                    default:
+                        found += store.existsByApartmentAndBlock(CONDOMINIUM, "A" + spot, "B" + (spot % 20)) ? 1 : 0;
+                }
+            }
+            assertThat(found).isPositive();
+            return LOOKUPS;
+        });
+
+        Benchmark.run(scenario + ", findById", 3, 1, "lookups", () -> {
+            int found = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                found += store.findById(CONDOMINIUM, ids.get(random.nextInt(SPOTS))).isPresent() ? 1 : 0;
+            }
+            assertThat(found).isEqualTo(LOOKUPS);
+            return LOOKUPS;
+        });
+
+        Benchmark.run(scenario + ", page of 10", 3, 1, "pages", () -> {
+            int found = 0;
+            for (int i = 0; i < 100; i++) {
+                found += store.findAll(CONDOMINIUM, PageRequest.of(random.nextInt(SPOTS / 10), 10, Sort.by("id"))).getNumberOfElements();
+            }
+            assertThat(found).isEqualTo(100 * 10);
+            return 100;
+        });
+    }
+
+    private static String plate(int i) {
+        int letters = i / 10_000;
+        return "" + (char) ('A' + letters / 676) + (char) ('A' + letters / 26 % 26) + (char) ('A' + letters % 26)
+                + String.format("%04d", i % 10_000);
+    }
+}
@@ -0,0 +1,73 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.dtos.BillableSessionDTO;
+import com.api.parkingcontrol.repositories.BillingCheckpointRepository;
+import com.api.parkingcontrol.repositories.BillingPartialRepository;
+import com.api.parkingcontrol.repositories.InvoiceRepository;
+import com.api.parkingcontrol.repositories.ParkingSessionRepository;
+import com.api.parkingcontrol.support.Benchmark;
+import com.api.parkingcontrol.support.BenchmarkTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prices a month of 10M generated sessions (2,000 apartments in 10 blocks) through the billing run,
+ * with the repositories stubbed: it measures pricing and aggregation, not the database.
+ * Run with {@code mvn test -Dtest=BillingServiceBenchmarkTest -Dbenchmarks=true}.
+ */
+@BenchmarkTest
+public class BillingServiceBenchmarkTest {
+
+    static final int SESSIONS = 10_000_000;
+    static final YearMonth MONTH = YearMonth.of(2026, 9);
+
+    @Test
+    @DisplayName("Benchmark: faturamento de 10M de sessoes em um mes")
+    void billTenMillionSessions() throws Exception {
+        int perDay = SESSIONS / MONTH.lengthOfMonth();
+        String[] apartments = new String[2000];
+        String[] blocks = new String[10];
+        for (int i = 0; i < apartments.length; i++) {
+            apartments[i] = String.valueOf(101 + i);
+        }
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = "Bloco " + (char) ('A' + i);
+        }
+
+        ParkingSessionRepository sessions = Mockito.mock(ParkingSessionRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(sessions.streamBillable(Mockito.anyString(), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(1);
+            var random = new SplittableRandom(from.getDayOfMonth());
+            return Stream.generate(() -> {
+                LocalDateTime exitedAt = from.plusSeconds(random.nextInt(86_400));
+                return new BillableSessionDTO(apartments[random.nextInt(apartments.length)], blocks[random.nextInt(blocks.length)],
+                        exitedAt.minusMinutes(5 + random.nextInt(3 * 24 * 60)), exitedAt);
+            }).limit(perDay);
+        });
+
+        var service = new BillingService(sessions, Mockito.mock(BillingPartialRepository.class),
+                Mockito.mock(BillingCheckpointRepository.class), Mockito.mock(InvoiceRepository.class),
+                Mockito.mock(PlatformTransactionManager.class), 15, 800, 400, "22:00", "06:00", 5000,
+                ZoneId.of("America/Sao_Paulo"), 0, 1000, 1, Duration.ofHours(1));
+        try {
+            Benchmark.run("Billing run", 3, Runtime.getRuntime().availableProcessors(), "sessions", () -> {
+                BillingRunResult result = service.run("benchmark", MONTH, true);
+                assertThat(result.getSessions()).isEqualTo((long) perDay * MONTH.lengthOfMonth());
+                return result.getSessions();
+            });
+        } finally {
+            service.shutdown();
+        }
+    }
+}
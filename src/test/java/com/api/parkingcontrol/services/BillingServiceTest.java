@@ -0,0 +1,194 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.dtos.BillableSessionDTO;
+import com.api.parkingcontrol.models.BillingCheckpointModel;
+import com.api.parkingcontrol.models.BillingPartialModel;
+import com.api.parkingcontrol.models.InvoiceModel;
+import com.api.parkingcontrol.repositories.BillingCheckpointRepository;
+import com.api.parkingcontrol.repositories.BillingPartialRepository;
+import com.api.parkingcontrol.repositories.InvoiceRepository;
+import com.api.parkingcontrol.repositories.ParkingSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BillingServiceTest {
+
+    static final String CONDOMINIUM = "residencial-aurora";
+    static final YearMonth MONTH = YearMonth.of(2026, 9);
+    static final LocalDateTime FIRST_DAY = LocalDateTime.of(2026, 9, 1, 0, 0);
+
+    BillingService service;
+    ParkingSessionRepository sessionRepository;
+    BillingPartialRepository partialRepository;
+    BillingCheckpointRepository checkpointRepository;
+    InvoiceRepository invoiceRepository;
+
+    @BeforeEach
+    void setUp() {
+        sessionRepository = Mockito.mock(ParkingSessionRepository.class);
+        partialRepository = Mockito.mock(BillingPartialRepository.class);
+        checkpointRepository = Mockito.mock(BillingCheckpointRepository.class);
+        invoiceRepository = Mockito.mock(InvoiceRepository.class);
+        Mockito.when(sessionRepository.streamBillable(Mockito.anyString(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> Stream.empty());
+        service = new BillingService(sessionRepository, partialRepository, checkpointRepository, invoiceRepository,
+                Mockito.mock(PlatformTransactionManager.class), 15, 800, 400, "22:00", "06:00", 5000,
+                ZoneId.of("UTC"), 2, 1000, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve somar as sessoes de cada dia por apartamento e bloco e gerar as faturas")
+    void shouldBillMonth() throws InterruptedException {
+//        CENARIO
+        Mockito.when(sessionRepository.streamBillable(CONDOMINIUM, FIRST_DAY, FIRST_DAY.plusDays(1)))
+                .thenAnswer(invocation -> Stream.of(
+                        session("101", "A", 10, 0, 11, 15),
+                        session("101", "A", 14, 0, 15, 15),
+                        session("102", "A", 9, 0, 9, 10)));
+        Mockito.when(partialRepository.sumByApartmentAndBlock(CONDOMINIUM, "2026-09"))
+                .thenReturn(List.of(totals("101", "A", 2, 120, 1600), totals("102", "A", 1, 0, 0)));
+
+//        EXECUCAO
+        BillingRunResult result = service.run(CONDOMINIUM, MONTH, false);
+
+//        VERIFICACAO
+        assertThat(result.getRanges()).isEqualTo(30);
+        assertThat(result.getRangesSkipped()).isZero();
+        assertThat(result.getSessions()).isEqualTo(3);
+        assertThat(result.getInvoices()).isEqualTo(2);
+        assertThat(result.getAmountCents()).isEqualTo(1600);
+
+        Mockito.verify(checkpointRepository, Mockito.times(30)).saveAndFlush(Mockito.any(BillingCheckpointModel.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BillingPartialModel>> partials = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(partialRepository).saveAllAndFlush(partials.capture());
+        assertThat(partials.getValue()).hasSize(2);
+        BillingPartialModel apartment101 = partials.getValue().get(0);
+        assertThat(apartment101.getSessions()).isEqualTo(2);
+        assertThat(apartment101.getBilledMinutes()).isEqualTo(120);
+        assertThat(apartment101.getAmountCents()).isEqualTo(1600);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InvoiceModel>> invoices = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(invoiceRepository).deleteByMonth(CONDOMINIUM, "2026-09");
+        Mockito.verify(invoiceRepository).saveAllAndFlush(invoices.capture());
+        assertThat(invoices.getValue()).extracting(InvoiceModel::getApartment).containsExactly("101", "102");
+    }
+
+    @Test
+    @DisplayName("Deve pular os dias ja processados por uma execucao anterior")
+    void shouldSkipCheckpointedRanges() throws InterruptedException {
+//        CENARIO
+        List<LocalDateTime> done = new ArrayList<>();
+        for (int day = 0; day < 29; day++) {
+            done.add(FIRST_DAY.plusDays(day));
+        }
+        Mockito.when(checkpointRepository.findRangeStarts(CONDOMINIUM, "2026-09")).thenReturn(done);
+
+//        EXECUCAO
+        BillingRunResult result = service.run(CONDOMINIUM, MONTH, false);
+
+//        VERIFICACAO
+        assertThat(result.getRangesSkipped()).isEqualTo(29);
+        Mockito.verify(sessionRepository, Mockito.times(1)).streamBillable(Mockito.anyString(), Mockito.any(), Mockito.any());
+        Mockito.verify(sessionRepository).streamBillable(CONDOMINIUM, FIRST_DAY.plusDays(29), FIRST_DAY.plusDays(30));
+    }
+
+    @Test
+    @DisplayName("Deve descartar os checkpoints quando a execucao for reiniciada")
+    void shouldDiscardCheckpointsOnRestart() throws InterruptedException {
+//        EXECUCAO
+        service.run(CONDOMINIUM, MONTH, true);
+
+//        VERIFICACAO
+        Mockito.verify(checkpointRepository).deleteByMonth(CONDOMINIUM, "2026-09");
+        Mockito.verify(partialRepository).deleteByMonth(CONDOMINIUM, "2026-09");
+        Mockito.verify(sessionRepository, Mockito.times(30)).streamBillable(Mockito.anyString(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar um dia ja registrado por outra execucao simultanea")
+    void shouldIgnoreRangeCheckpointedConcurrently() {
+//        CENARIO
+        Mockito.when(sessionRepository.streamBillable(CONDOMINIUM, FIRST_DAY, FIRST_DAY.plusDays(1)))
+                .thenAnswer(invocation -> Stream.of(session("101", "A", 10, 0, 11, 15)));
+        Mockito.when(checkpointRepository.saveAndFlush(Mockito.any(BillingCheckpointModel.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_billing_checkpoint_condominium_month_range"));
+
+//        EXECUCAO
+        long sessions = service.billRange(CONDOMINIUM, "2026-09", FIRST_DAY, FIRST_DAY.plusDays(1));
+
+//        VERIFICACAO
+        assertThat(sessions).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve faturar em segundo plano, reaproveitar a execucao pendente do mes e liberar a vaga ao terminar")
+    void shouldRunInBackgroundAndReuseActiveRun() throws InterruptedException {
+//        CENARIO
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(checkpointRepository.findRangeStarts(CONDOMINIUM, "2026-09")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+//        EXECUCAO
+        BillingRun first = service.startRun(CONDOMINIUM, MONTH, false);
+        BillingRun retried = service.startRun(CONDOMINIUM, MONTH, true);
+
+//        VERIFICACAO
+        assertThat(retried).isSameAs(first);
+        assertThat(first.isFinished()).isFalse();
+        assertThatThrownBy(() -> service.startRun(CONDOMINIUM, MONTH.minusMonths(1), false))
+                .isInstanceOf(JobQueueFullException.class);
+        assertThat(service.findRun("outro-condominio", first.getId())).isEmpty();
+
+        release.countDown();
+        for (int i = 0; i < 100 && !first.isFinished(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(first.getStatus()).isEqualTo(BillingRun.Status.COMPLETED);
+        assertThat(first.getResult().getRanges()).isEqualTo(30);
+        assertThat(service.findRun(CONDOMINIUM, first.getId())).contains(first);
+        assertThat(service.startRun(CONDOMINIUM, MONTH, false)).isNotSameAs(first);
+    }
+
+    private BillableSessionDTO session(String apartment, String block, int enteredHour, int enteredMinute, int exitedHour, int exitedMinute) {
+        return new BillableSessionDTO(apartment, block,
+                FIRST_DAY.withHour(enteredHour).withMinute(enteredMinute), FIRST_DAY.withHour(exitedHour).withMinute(exitedMinute));
+    }
+
+    private BillingPartialRepository.BillingTotals totals(String apartment, String block, long sessions, long minutes, long cents) {
+        return new BillingPartialRepository.BillingTotals() {
+            public String getApartment() { return apartment; }
+            public String getBlock() { return block; }
+            public long getSessions() { return sessions; }
+            public long getBilledMinutes() { return minutes; }
+            public long getAmountCents() { return cents; }
+        };
+    }
+}
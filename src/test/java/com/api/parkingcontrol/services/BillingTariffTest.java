@@ -0,0 +1,59 @@
+package com.api.parkingcontrol.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BillingTariffTest {
+
+    BillingTariff tariff = new BillingTariff(15, 800, 400, LocalTime.of(22, 0), LocalTime.of(6, 0), 5000);
+
+    @Test
+    @DisplayName("Nao deve cobrar permanencias dentro dos minutos gratuitos")
+    void shouldNotChargeWithinFreeMinutes() {
+        assertThat(tariff.charge(minute(10, 0), minute(10, 15))).isZero();
+        assertThat(tariff.billedMinutes(minute(10, 0), minute(10, 15))).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve cobrar por minuto na tarifa diurna descontando os minutos gratuitos")
+    void shouldChargeDayRate() {
+        assertThat(tariff.charge(minute(10, 0), minute(11, 15))).isEqualTo(800);
+        assertThat(tariff.billedMinutes(minute(10, 0), minute(11, 15))).isEqualTo(60);
+//        1 minuto a R$ 8,00/hora arredonda para cima
+        assertThat(tariff.charge(minute(10, 0), minute(10, 16))).isEqualTo(14);
+    }
+
+    @Test
+    @DisplayName("Deve cobrar a tarifa noturna nos minutos apos as 22h")
+    void shouldChargeNightRate() {
+        assertThat(tariff.charge(minute(21, 45), minute(22, 45))).isEqualTo(300);
+        assertThat(tariff.charge(minute(21, 0), minute(23, 15))).isEqualTo(1100);
+    }
+
+    @Test
+    @DisplayName("Deve limitar a cobranca de cada periodo de 24 horas")
+    void shouldCapEachDay() {
+        long entered = minute(0, 0);
+        long exited = entered + 3 * 24 * 60 + 15;
+
+        assertThat(tariff.charge(entered, exited)).isEqualTo(3 * 5000);
+    }
+
+    @Test
+    @DisplayName("Deve tratar noites que nao atravessam a meia-noite")
+    void shouldSupportNightWindowWithinDay() {
+        var earlyNight = new BillingTariff(0, 600, 0, LocalTime.of(0, 0), LocalTime.of(6, 0), 0);
+
+        assertThat(earlyNight.charge(minute(5, 0), minute(7, 0))).isEqualTo(600);
+    }
+
+    private static long minute(int hour, int minute) {
+        return LocalDateTime.of(2026, 9, 1, hour, minute).toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
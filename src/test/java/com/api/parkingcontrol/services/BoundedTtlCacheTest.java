@@ -0,0 +1,77 @@
+package com.api.parkingcontrol.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedTtlCacheTest {
+
+    @Test
+    @DisplayName("Deve descartar a entrada mais antiga quando passar do limite")
+    void shouldEvictEldestEntry() {
+        var cache = new BoundedTtlCache<String, String>(2, Duration.ofHours(1), Clock.systemUTC());
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo("2");
+        assertThat(cache.get("c")).isEqualTo("3");
+    }
+
+    @Test
+    @DisplayName("Deve manter entradas nao descartaveis mesmo acima do limite e apos o TTL")
+    void shouldKeepEntriesThatAreNotEvictable() {
+//        CENARIO
+        var running = new AtomicBoolean(true);
+        var clock = new MutableClock();
+        var cache = new BoundedTtlCache<String, AtomicBoolean>(1, Duration.ofMinutes(1), clock, value -> !value.get());
+        cache.put("running", running);
+
+//        EXECUCAO
+        cache.put("finished", new AtomicBoolean(false));
+        cache.put("queued", new AtomicBoolean(true));
+        clock.advance(Duration.ofMinutes(2));
+
+//        VERIFICACAO
+        assertThat(cache.get("finished")).isNull();
+        assertThat(cache.get("running")).isSameAs(running);
+        assertThat(cache.get("queued")).isNotNull();
+
+        running.set(false);
+        assertThat(cache.get("running")).isNull();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
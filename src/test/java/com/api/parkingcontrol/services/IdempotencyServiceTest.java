@@ -0,0 +1,172 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.IdempotencyRecordModel;
+import com.api.parkingcontrol.repositories.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IdempotencyServiceTest {
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    IdempotencyService service = new IdempotencyService(null, 100, Duration.ofHours(1),
+            Duration.ofSeconds(5), Duration.ofSeconds(30), Clock.systemUTC());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve reexecutar a resposta gravada para a mesma chave")
+    void shouldReplayCompletedResponse() {
+        assertThat(service.begin("key-1", "hash").getType()).isEqualTo(IdempotencyService.Outcome.Type.PROCEED);
+        service.complete("key-1", response(201, "hash"));
+
+        IdempotencyService.Outcome outcome = service.begin("key-1", "hash");
+
+        assertThat(outcome.getType()).isEqualTo(IdempotencyService.Outcome.Type.REPLAY);
+        assertThat(outcome.getResponse().getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a chave reutilizada com outra requisicao")
+    void shouldRejectKeyReusedWithAnotherRequest() {
+        service.begin("key-1", "hash");
+        service.complete("key-1", response(201, "hash"));
+
+        assertThat(service.begin("key-1", "other-hash").getType()).isEqualTo(IdempotencyService.Outcome.Type.MISMATCH);
+    }
+
+    @Test
+    @DisplayName("Deve fazer a requisicao duplicada aguardar a primeira execucao")
+    void shouldMakeDuplicateWaitForFirstExecution() throws Exception {
+        service.begin("key-1", "hash");
+
+        Future<IdempotencyService.Outcome> duplicate = executor.submit(() -> service.begin("key-1", "hash"));
+        Thread.sleep(100);
+        assertThat(duplicate.isDone()).isFalse();
+
+        service.complete("key-1", response(201, "hash"));
+
+        IdempotencyService.Outcome outcome = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(outcome.getType()).isEqualTo(IdempotencyService.Outcome.Type.REPLAY);
+        assertThat(new String(outcome.getResponse().getBody(), StandardCharsets.UTF_8)).isEqualTo("created");
+    }
+
+    @Test
+    @DisplayName("Deve liberar a chave quando a primeira execucao falhar")
+    void shouldLetDuplicateRunWhenFirstExecutionFails() throws Exception {
+        service.begin("key-1", "hash");
+
+        Future<IdempotencyService.Outcome> duplicate = executor.submit(() -> service.begin("key-1", "hash"));
+        Thread.sleep(100);
+        service.abandon("key-1");
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getType()).isEqualTo(IdempotencyService.Outcome.Type.PROCEED);
+    }
+
+    @Test
+    @DisplayName("Deve responder em andamento quando a primeira execucao demorar demais")
+    void shouldAnswerInProgressAfterWaitTimeout() {
+        IdempotencyService impatient = new IdempotencyService(null, 100, Duration.ofHours(1),
+                Duration.ofMillis(50), Duration.ofSeconds(30), Clock.systemUTC());
+        impatient.begin("key-1", "hash");
+
+        assertThat(impatient.begin("key-1", "hash").getType()).isEqualTo(IdempotencyService.Outcome.Type.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Deve liberar a chave quando o banco falhar ao registrar a execucao")
+    void shouldReleaseKeyWhenPersistentClaimFails() {
+//        CENARIO
+        IdempotencyRecordRepository repository = Mockito.mock(IdempotencyRecordRepository.class);
+        Mockito.when(repository.findById("key-1"))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(Optional.empty());
+        IdempotencyService persistent = new IdempotencyService(repository, 100, Duration.ofHours(1),
+                Duration.ofMillis(200), Duration.ofSeconds(30), Clock.systemUTC());
+
+//        EXECUCAO / VERIFICACAO
+        assertThatThrownBy(() -> persistent.begin("key-1", "hash"))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(persistent.begin("key-1", "hash").getType()).isEqualTo(IdempotencyService.Outcome.Type.PROCEED);
+    }
+
+    @Test
+    @DisplayName("Nao deve assumir uma execucao vencida que outra instancia ja assumiu")
+    void shouldRereadWhenStaleClaimWasTakenOverByAnotherInstance() {
+//        CENARIO
+        IdempotencyRecordRepository repository = Mockito.mock(IdempotencyRecordRepository.class);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        IdempotencyRecordModel stale = record(now.minusMinutes(5));
+        IdempotencyRecordModel takenOver = record(now);
+        Mockito.when(repository.findById("key-1")).thenReturn(Optional.of(stale), Optional.of(takenOver));
+        Mockito.when(repository.deleteClaim("key-1", stale.getCreatedAt(), "hash")).thenReturn(0);
+        IdempotencyService persistent = new IdempotencyService(repository, 100, Duration.ofHours(1),
+                Duration.ofMillis(100), Duration.ofSeconds(30), Clock.systemUTC());
+
+//        EXECUCAO
+        IdempotencyService.Outcome outcome = persistent.begin("key-1", "hash");
+
+//        VERIFICACAO
+        assertThat(outcome.getType()).isEqualTo(IdempotencyService.Outcome.Type.IN_PROGRESS);
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any());
+        Mockito.verify(repository, Mockito.never()).delete(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve concluir e liberar apenas o registro criado pela propria execucao")
+    void shouldCompleteOnlyOwnClaim() {
+//        CENARIO
+        IdempotencyRecordRepository repository = Mockito.mock(IdempotencyRecordRepository.class);
+        Mockito.when(repository.findById(Mockito.anyString())).thenReturn(Optional.empty());
+        IdempotencyService persistent = new IdempotencyService(repository, 100, Duration.ofHours(1),
+                Duration.ofSeconds(1), Duration.ofSeconds(30), Clock.systemUTC());
+        persistent.begin("key-1", "hash");
+        persistent.begin("key-2", "hash");
+        ArgumentCaptor<IdempotencyRecordModel> claims = ArgumentCaptor.forClass(IdempotencyRecordModel.class);
+        Mockito.verify(repository, Mockito.times(2)).saveAndFlush(claims.capture());
+
+//        EXECUCAO
+        persistent.complete("key-1", response(201, "hash"));
+        persistent.abandon("key-2");
+
+//        VERIFICACAO
+        Mockito.verify(repository).complete(Mockito.eq("key-1"), Mockito.eq(claims.getAllValues().get(0).getCreatedAt()),
+                Mockito.eq(201), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(repository).deleteClaim("key-2", claims.getAllValues().get(1).getCreatedAt(), "hash");
+        Mockito.verify(repository, Mockito.never()).deleteById(Mockito.any());
+    }
+
+    private IdempotencyRecordModel record(LocalDateTime createdAt) {
+        var record = new IdempotencyRecordModel();
+        record.setIdempotencyKey("key-1");
+        record.setRequestHash("hash");
+        record.setCreatedAt(createdAt);
+        record.setExpiresAt(createdAt.plusHours(1));
+        return record;
+    }
+
+    private IdempotentResponse response(int status, String hash) {
+        return new IdempotentResponse(status, "text/plain", "created".getBytes(StandardCharsets.UTF_8), hash);
+    }
+}
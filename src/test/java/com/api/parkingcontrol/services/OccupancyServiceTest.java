@@ -0,0 +1,209 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.OccupancyResolution;
+import com.api.parkingcontrol.models.OccupancySampleModel;
+import com.api.parkingcontrol.repositories.OccupancySampleRepository;
+import com.api.parkingcontrol.repositories.ParkingSessionRepository;
+import com.api.parkingcontrol.repositories.ParkingSpotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class OccupancyServiceTest {
+
+    static final String CONDOMINIUM = "residencial-aurora";
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 10, 14, 7, 42);
+
+    OccupancyService service;
+    OccupancySampleRepository occupancySampleRepository;
+    ParkingSpotRepository parkingSpotRepository;
+    ParkingSessionRepository parkingSessionRepository;
+    List<OccupancySampleModel> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        occupancySampleRepository = Mockito.mock(OccupancySampleRepository.class);
+        parkingSpotRepository = Mockito.mock(ParkingSpotRepository.class);
+        parkingSessionRepository = Mockito.mock(ParkingSessionRepository.class);
+        Mockito.when(occupancySampleRepository.saveAllAndFlush(Mockito.anyIterable())).thenAnswer(invocation -> {
+            Iterable<OccupancySampleModel> samples = invocation.getArgument(0);
+            samples.forEach(saved::add);
+            return List.copyOf(saved);
+        });
+        service = new OccupancyService(occupancySampleRepository, parkingSpotRepository, parkingSessionRepository,
+                Duration.ofDays(7), Duration.ofDays(400), Duration.ofDays(3650), Duration.ofDays(1), Duration.ofDays(62), 168);
+    }
+
+    @Test
+    @DisplayName("Deve registrar a ocupacao de cada bloco, inclusive dos blocos vazios")
+    void shouldSampleEveryBlock() {
+//        CENARIO
+        Mockito.when(parkingSpotRepository.countByBlock()).thenReturn(List.of(count("A", 40), count("B", 25)));
+        Mockito.when(parkingSessionRepository.countOpenByBlock()).thenReturn(List.of(count("A", 12)));
+
+//        EXECUCAO
+        int samples = service.sample(NOW);
+
+//        VERIFICACAO
+        assertThat(samples).isEqualTo(2);
+        assertThat(saved).extracting(OccupancySampleModel::getBlock, OccupancySampleModel::getOccupiedMax, OccupancySampleModel::getTotalSpots)
+                .containsExactly(tuple("A", 12, 40), tuple("B", 0, 25));
+        assertThat(saved).allSatisfy(sample -> {
+            assertThat(sample.getResolution()).isEqualTo(OccupancyResolution.MINUTE);
+            assertThat(sample.getBucketStart()).isEqualTo(LocalDateTime.of(2024, 3, 10, 14, 7));
+        });
+    }
+
+    @Test
+    @DisplayName("Deve consolidar as horas encerradas a partir da ultima hora consolidada")
+    void shouldRollUpFinishedHours() {
+//        CENARIO
+        LocalDateTime lastHour = LocalDateTime.of(2024, 3, 10, 11, 0);
+        Mockito.when(occupancySampleRepository.findFirstByResolutionOrderByBucketStartDesc(OccupancyResolution.HOUR))
+                .thenReturn(Optional.of(sample(OccupancyResolution.HOUR, lastHour, 0)));
+        Mockito.when(occupancySampleRepository.findAllByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                        OccupancyResolution.MINUTE, lastHour.plusHours(1), lastHour.plusHours(2)))
+                .thenReturn(List.of(sample(OccupancyResolution.MINUTE, lastHour.plusHours(1), 10),
+                        sample(OccupancyResolution.MINUTE, lastHour.plusHours(1).plusMinutes(1), 20),
+                        sample(OccupancyResolution.MINUTE, lastHour.plusHours(1).plusMinutes(2), 30)));
+        Mockito.when(occupancySampleRepository.findAllByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                        OccupancyResolution.MINUTE, lastHour.plusHours(2), lastHour.plusHours(3)))
+                .thenReturn(List.of(sample(OccupancyResolution.MINUTE, lastHour.plusHours(2), 5)));
+
+//        EXECUCAO
+        LocalDateTime complete = service.rollUp(OccupancyResolution.MINUTE, OccupancyResolution.HOUR, NOW);
+
+//        VERIFICACAO
+        assertThat(complete).isEqualTo(LocalDateTime.of(2024, 3, 10, 14, 0));
+        assertThat(saved).hasSize(2);
+        OccupancySampleModel noon = saved.get(0);
+        assertThat(noon.getResolution()).isEqualTo(OccupancyResolution.HOUR);
+        assertThat(noon.getBucketStart()).isEqualTo(lastHour.plusHours(1));
+        assertThat(noon.getSamples()).isEqualTo(3);
+        assertThat(noon.getOccupiedAverage()).isEqualTo(20.0);
+        assertThat(noon.getOccupiedMin()).isEqualTo(10);
+        assertThat(noon.getOccupiedMax()).isEqualTo(30);
+        assertThat(saved.get(1).getBucketStart()).isEqualTo(lastHour.plusHours(2));
+//        The current hour (14:00) is not over yet.
+        Mockito.verify(occupancySampleRepository, Mockito.never()).findAllByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                OccupancyResolution.MINUTE, lastHour.plusHours(3), lastHour.plusHours(4));
+    }
+
+    @Test
+    @DisplayName("Deve pular periodos sem amostras ao consolidar")
+    void shouldSkipGapsWhenRollingUp() {
+//        CENARIO
+        LocalDateTime first = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime resumed = LocalDateTime.of(2024, 3, 9, 0, 0);
+        Mockito.when(occupancySampleRepository.findFirstByResolutionOrderByBucketStartAsc(OccupancyResolution.HOUR))
+                .thenReturn(Optional.of(sample(OccupancyResolution.HOUR, first.plusHours(3), 1)));
+        Mockito.when(occupancySampleRepository.findFirstByResolutionAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+                        OccupancyResolution.HOUR, first.plusDays(1)))
+                .thenReturn(Optional.of(sample(OccupancyResolution.HOUR, resumed.plusHours(5), 1)));
+        Mockito.when(occupancySampleRepository.findAllByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                        OccupancyResolution.HOUR, resumed, resumed.plusDays(1)))
+                .thenReturn(List.of(sample(OccupancyResolution.HOUR, resumed.plusHours(5), 8)));
+
+//        EXECUCAO
+        LocalDateTime complete = service.rollUp(OccupancyResolution.HOUR, OccupancyResolution.DAY, NOW);
+
+//        VERIFICACAO
+        assertThat(complete).isEqualTo(LocalDateTime.of(2024, 3, 10, 0, 0));
+        assertThat(saved).extracting(OccupancySampleModel::getBucketStart).containsExactly(resumed);
+    }
+
+    @Test
+    @DisplayName("Deve consolidar o dia somente depois que todas as suas horas forem consolidadas")
+    void shouldNotRollUpDayFromPartialHourlyCatchUp() {
+//        CENARIO
+        service = new OccupancyService(occupancySampleRepository, parkingSpotRepository, parkingSessionRepository,
+                Duration.ofDays(7), Duration.ofDays(400), Duration.ofDays(3650), Duration.ofDays(1), Duration.ofDays(62), 3);
+        LocalDateTime lastHour = LocalDateTime.of(2024, 3, 9, 5, 0);
+        Mockito.when(occupancySampleRepository.findFirstByResolutionOrderByBucketStartDesc(OccupancyResolution.HOUR))
+                .thenReturn(Optional.of(sample(OccupancyResolution.HOUR, lastHour, 0)));
+        Mockito.when(occupancySampleRepository.findFirstByResolutionOrderByBucketStartDesc(OccupancyResolution.DAY))
+                .thenReturn(Optional.of(sample(OccupancyResolution.DAY, LocalDateTime.of(2024, 3, 8, 0, 0), 0)));
+        Mockito.when(occupancySampleRepository.findAllByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                        Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> List.of(sample(invocation.getArgument(0), invocation.getArgument(1), 4)));
+
+//        EXECUCAO
+        service.compact(NOW);
+
+//        VERIFICACAO
+        assertThat(saved).extracting(OccupancySampleModel::getResolution, OccupancySampleModel::getBucketStart)
+                .containsExactly(tuple(OccupancyResolution.HOUR, lastHour.plusHours(1)),
+                        tuple(OccupancyResolution.HOUR, lastHour.plusHours(2)),
+                        tuple(OccupancyResolution.HOUR, lastHour.plusHours(3)));
+//        The hours from 09:00 on are built by the next runs; only then is 2024-03-09 rolled up.
+        Mockito.verify(occupancySampleRepository, Mockito.never()).findAllByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                Mockito.eq(OccupancyResolution.HOUR), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve apagar cada nivel conforme a sua retencao")
+    void shouldApplyRetention() {
+//        EXECUCAO
+        service.compact(NOW);
+
+//        VERIFICACAO
+        Mockito.verify(occupancySampleRepository).deleteOlderThan(OccupancyResolution.MINUTE, NOW.minusDays(7));
+        Mockito.verify(occupancySampleRepository).deleteOlderThan(OccupancyResolution.HOUR, NOW.minusDays(400));
+        Mockito.verify(occupancySampleRepository).deleteOlderThan(OccupancyResolution.DAY, NOW.minusDays(3650));
+    }
+
+    @Test
+    @DisplayName("Deve escolher o nivel mais detalhado que cobre o periodo consultado")
+    void shouldResolveAutomaticResolution() {
+//        EXECUCAO / VERIFICACAO
+        assertThat(service.resolve(NOW.minusHours(6), NOW, NOW)).isEqualTo(OccupancyResolution.MINUTE);
+        assertThat(service.resolve(NOW.minusDays(10).minusHours(6), NOW.minusDays(10), NOW)).isEqualTo(OccupancyResolution.HOUR);
+        assertThat(service.resolve(NOW.minusDays(30), NOW, NOW)).isEqualTo(OccupancyResolution.HOUR);
+        assertThat(service.resolve(NOW.minusYears(1), NOW, NOW)).isEqualTo(OccupancyResolution.DAY);
+        assertThat(service.isWithinPointLimit(NOW.minusYears(1), NOW, OccupancyResolution.MINUTE)).isFalse();
+        assertThat(service.isWithinPointLimit(NOW.minusYears(1), NOW, OccupancyResolution.HOUR)).isTrue();
+    }
+
+    private OccupancySampleModel sample(OccupancyResolution resolution, LocalDateTime bucketStart, int occupied) {
+        var sample = new OccupancySampleModel();
+        sample.setCondominiumId(CONDOMINIUM);
+        sample.setBlock("A");
+        sample.setResolution(resolution);
+        sample.setBucketStart(bucketStart);
+        sample.setOccupiedSum(occupied);
+        sample.setSamples(1);
+        sample.setOccupiedMin(occupied);
+        sample.setOccupiedMax(occupied);
+        sample.setTotalSpots(40);
+        return sample;
+    }
+
+    private static ParkingSpotRepository.BlockCount count(String block, long count) {
+        return new ParkingSpotRepository.BlockCount() {
+            @Override
+            public String getCondominiumId() {
+                return CONDOMINIUM;
+            }
+
+            @Override
+            public String getBlock() {
+                return block;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
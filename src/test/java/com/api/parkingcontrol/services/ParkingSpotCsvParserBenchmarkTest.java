@@ -0,0 +1,101 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.support.Benchmark;
+import com.api.parkingcontrol.support.BenchmarkTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.Validation;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parses, validates and de-duplicates a generated 1M-row file the way an import does, without the
+ * database. Run with {@code mvn test -Dtest=ParkingSpotCsvParserBenchmarkTest -Dbenchmarks=true}.
+ */
+@BenchmarkTest
+public class ParkingSpotCsvParserBenchmarkTest {
+
+    static final int ROWS = 1_000_000;
+    static final String[] BRANDS = {"Hyundai", "Fiat", "Chevrolet", "Volkswagen", "Toyota", "Honda", "Renault", "Jeep"};
+    static final String[] MODELS = {"HB20", "Uno", "Onix", "Gol", "Corolla", "Civic", "Kwid", "Renegade"};
+    static final String[] COLORS = {"Branco", "Preto", "Prata", "Cinza", "Vermelho", "Azul"};
+
+    @Test
+    @DisplayName("Benchmark: importacao de 1M de linhas sem banco de dados")
+    void parseOneMillionRows() throws Exception {
+        Path file = generate();
+        var parser = new ParkingSpotCsvParser(Validation.buildDefaultValidatorFactory().getValidator());
+        var pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            Benchmark.run("CSV import of " + (Files.size(file) >> 20) + " MB", 3, pool.getParallelism(), "rows", () -> {
+                int rows = run(parser, pool, file);
+                assertThat(rows).isEqualTo(ROWS);
+                return rows;
+            });
+        } finally {
+            pool.shutdown();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private int run(ParkingSpotCsvParser parser, ForkJoinPool pool, Path file) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ParkingSpotCsvParser.Header header = parser.readHeader(channel);
+            List<Future<ParkingSpotCsvParser.ParsedChunk>> futures = new ArrayList<>();
+            for (ParkingSpotCsvParser.Chunk chunk : parser.split(channel, header.getEnd(), 8 * 1024 * 1024)) {
+                futures.add(pool.submit(() -> parser.parse(channel, chunk, header)));
+            }
+            var plates = new HashSet<String>(ROWS * 2);
+            int rows = 0;
+            for (Future<ParkingSpotCsvParser.ParsedChunk> future : futures) {
+                for (ParkingSpotCsvParser.ParsedRow row : future.get().getRows()) {
+                    if (plates.add(row.getParkingSpot().getLicensePlateCar())) {
+                        rows++;
+                    }
+                }
+            }
+            return rows;
+        }
+    }
+
+    private Path generate() throws IOException {
+        Path file = Files.createTempFile("parking-spot-benchmark-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("parkingSpotNumber,licensePlateCar,brandCar,modelCar,colorCar,responsibleName,apartment,block\n");
+            for (int i = 0; i < ROWS; i++) {
+                String plate = "" + (char) ('A' + i / 260000 % 26) + (char) ('A' + i / 10000 % 26) + (char) ('A' + i / 1000 % 10)
+                        + String.format("%04d", i % 10000);
+                writer.write(Integer.toString(i));
+                writer.write(',');
+                writer.write(plate);
+                writer.write(',');
+                writer.write(BRANDS[i % BRANDS.length]);
+                writer.write(',');
+                writer.write(MODELS[i % MODELS.length]);
+                writer.write(',');
+                writer.write(COLORS[i % COLORS.length]);
+                writer.write(",Morador ");
+                writer.write(Integer.toString(i));
+                writer.write(',');
+                writer.write(Integer.toString(i % 2000));
+                writer.write(",Bloco ");
+                writer.write(Integer.toString(i / 2000));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+}
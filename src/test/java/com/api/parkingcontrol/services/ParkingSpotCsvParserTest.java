@@ -0,0 +1,146 @@
+package com.api.parkingcontrol.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.Validation;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParkingSpotCsvParserTest {
+
+    static final String HEADER = "parkingSpotNumber,licensePlateCar,brandCar,modelCar,colorCar,responsibleName,apartment,block\n";
+
+    ParkingSpotCsvParser parser;
+    Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        parser = new ParkingSpotCsvParser(Validation.buildDefaultValidatorFactory().getValidator());
+        file = Files.createTempFile("parking-spot-csv-parser-", ".csv");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("Deve ler as linhas validas do CSV")
+    void shouldParseValidRows() throws IOException {
+//        CENARIO
+        write(HEADER +
+                "101,ABC1234,Hyundai,HB20,Branco,Maria,101,A\r\n" +
+                "102, DEF5678 ,\"Fiat\",\"Uno, \"\"Mille\"\"\",Preto,Joao,102,A\n");
+
+//        EXECUCAO
+        List<ParkingSpotCsvParser.ParsedChunk> chunks = parseAll(1024);
+
+//        VERIFICACAO
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).getErrors()).isEmpty();
+        assertThat(chunks.get(0).getRows()).hasSize(2);
+        assertThat(chunks.get(0).getRows().get(0).getParkingSpot().getBlock()).isEqualTo("A");
+        assertThat(chunks.get(0).getRows().get(1).getParkingSpot().getLicensePlateCar()).isEqualTo("DEF5678");
+        assertThat(chunks.get(0).getRows().get(1).getParkingSpot().getModelCar()).isEqualTo("Uno, \"Mille\"");
+        assertThat(chunks.get(0).getRows().get(1).getLine()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar colunas fora de ordem e ignorar colunas desconhecidas")
+    void shouldMapColumnsByName() throws IOException {
+//        CENARIO
+        write("block,apartment,observacao,responsibleName,colorCar,modelCar,brandCar,licensePlateCar,parkingSpotNumber\n" +
+                "B,201,vaga coberta,Ana,Azul,Onix,Chevrolet,GHI9012,201\n");
+
+//        EXECUCAO
+        List<ParkingSpotCsvParser.ParsedChunk> chunks = parseAll(1024);
+
+//        VERIFICACAO
+        var parkingSpot = chunks.get(0).getRows().get(0).getParkingSpot();
+        assertThat(parkingSpot.getParkingSpotNumber()).isEqualTo("201");
+        assertThat(parkingSpot.getBlock()).isEqualTo("B");
+        assertThat(parkingSpot.getResponsibleName()).isEqualTo("Ana");
+    }
+
+    @Test
+    @DisplayName("Deve reportar linhas invalidas sem interromper a leitura")
+    void shouldReportInvalidRows() throws IOException {
+//        CENARIO
+        write(HEADER +
+                "101,ABC1234,Hyundai,HB20,Branco,Maria,101\n" +
+                "102,PLACA-MUITO-LONGA,Fiat,Uno,Preto,Joao,102,A\n" +
+                "103,JKL3456,Fiat,\"Uno,Preto,Joao,103,A\n" +
+                "104,MNO7890,Fiat,Uno,Preto,Joao,104,A\n");
+
+//        EXECUCAO
+        List<ParkingSpotCsvParser.ParsedChunk> chunks = parseAll(1024);
+
+//        VERIFICACAO
+        assertThat(chunks.get(0).getRows()).hasSize(1);
+        assertThat(chunks.get(0).getErrors()).hasSize(3);
+        assertThat(chunks.get(0).getErrors().get(0).getMessage()).isEqualTo("Expected 8 columns but found 7");
+        assertThat(chunks.get(0).getErrors().get(1).getMessage()).startsWith("licensePlateCar");
+        assertThat(chunks.get(0).getErrors().get(2).getLine()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve dividir o arquivo em blocos que terminam no fim de uma linha")
+    void shouldSplitOnLineBoundaries() throws IOException {
+//        CENARIO
+        var content = new StringBuilder(HEADER);
+        for (int i = 0; i < 100; i++) {
+            content.append(i).append(",AAA").append(String.format("%04d", i)).append(",Fiat,Uno,Preto,Joao,").append(i).append(",A\n");
+        }
+        write(content.toString());
+
+//        EXECUCAO
+        List<ParkingSpotCsvParser.ParsedChunk> chunks = parseAll(256);
+
+//        VERIFICACAO
+        assertThat(chunks.size()).isGreaterThan(1);
+        assertThat(chunks.stream().mapToInt(chunk -> chunk.getErrors().size()).sum()).isZero();
+        assertThat(chunks.stream().mapToInt(chunk -> chunk.getRows().size()).sum()).isEqualTo(100);
+        assertThat(chunks.stream().mapToInt(ParkingSpotCsvParser.ParsedChunk::getLines).sum()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando faltar uma coluna no cabecalho")
+    void shouldRejectMissingColumn() throws IOException {
+//        CENARIO
+        write("parkingSpotNumber,licensePlateCar\n101,ABC1234\n");
+
+//        EXECUCAO E VERIFICACAO
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThatThrownBy(() -> parser.readHeader(channel))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Missing column brandCar");
+        }
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<ParkingSpotCsvParser.ParsedChunk> parseAll(int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ParkingSpotCsvParser.Header header = parser.readHeader(channel);
+            List<ParkingSpotCsvParser.ParsedChunk> parsed = new ArrayList<>();
+            for (ParkingSpotCsvParser.Chunk chunk : parser.split(channel, header.getEnd(), chunkSize)) {
+                parsed.add(parser.parse(channel, chunk, header));
+            }
+            return parsed;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.ParkingSpotModel;
+import com.api.parkingcontrol.repositories.ParkingSpotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.validation.Validation;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParkingSpotImportServiceTest {
+
+    static final String CONDOMINIUM = "residencial-aurora";
+    static final String HEADER = "parkingSpotNumber,licensePlateCar,brandCar,modelCar,colorCar,responsibleName,apartment,block\n";
+
+    ParkingSpotImportService service;
+    ParkingSpotRepository repository;
+    Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = Mockito.mock(ParkingSpotRepository.class);
+        service = new ParkingSpotImportService(repository, Validation.buildDefaultValidatorFactory().getValidator(),
+                Mockito.mock(PlatformTransactionManager.class), 128, 2, 100, 2, 1, Duration.ofHours(1));
+        file = Files.createTempFile("parking-spot-import-test-", ".csv");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("Deve importar as linhas validas e rejeitar conflitos com a base e dentro do arquivo")
+    void shouldImportAndRejectConflicts() throws IOException {
+//        CENARIO
+        Mockito.when(repository.findKeysByCondominiumId(CONDOMINIUM)).thenReturn(List.of(keys("900", "ZZZ9999", "900", "Z")));
+        List<ParkingSpotModel> saved = new ArrayList<>();
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        write(HEADER +
+                "101,ABC1234,Hyundai,HB20,Branco,Maria,101,A\n" +
+                "102,ZZZ9999,Fiat,Uno,Preto,Joao,102,A\n" +
+                "103,DEF5678,Fiat,Uno,Preto,Ana,101,A\n" +
+                "104,GHI9012,Fiat,Uno,Preto,Rita,104,A\n" +
+                "105,,Fiat,Uno,Preto,Rita,105,A\n" +
+                "106,JKL3456,Fiat,Uno,Preto,Rui,106,A\n");
+        var job = new ParkingSpotImportJob(CONDOMINIUM, "spots.csv", Files.size(file), 100);
+
+//        EXECUCAO
+        service.run(job, file);
+
+//        VERIFICACAO
+        assertThat(job.getStatus()).isEqualTo(ParkingSpotImportJob.Status.COMPLETED);
+        assertThat(job.getProgress()).isEqualTo(100);
+        assertThat(job.getRowsImported()).isEqualTo(3);
+        assertThat(job.getRowsRejected()).isEqualTo(3);
+        assertThat(job.getErrors()).extracting(ParkingSpotImportJob.RowError::getLine).containsExactly(3L, 4L, 6L);
+        assertThat(saved).extracting(ParkingSpotModel::getParkingSpotNumber).containsExactly("101", "104", "106");
+        assertThat(saved).allMatch(model -> CONDOMINIUM.equals(model.getCondominiumId()));
+        assertThat(Files.exists(file)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve gravar linha a linha quando o lote conflitar com um cadastro concorrente")
+    void shouldRetryBatchRowByRow() throws IOException {
+//        CENARIO
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        Mockito.when(repository.save(Mockito.any(ParkingSpotModel.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        write(HEADER +
+                "101,ABC1234,Hyundai,HB20,Branco,Maria,101,A\n" +
+                "102,DEF5678,Fiat,Uno,Preto,Joao,102,A\n");
+        var job = new ParkingSpotImportJob(CONDOMINIUM, "spots.csv", Files.size(file), 100);
+
+//        EXECUCAO
+        service.run(job, file);
+
+//        VERIFICACAO
+        ArgumentCaptor<ParkingSpotModel> captor = ArgumentCaptor.forClass(ParkingSpotModel.class);
+        Mockito.verify(repository, Mockito.times(2)).save(captor.capture());
+        assertThat(job.getRowsImported()).isEqualTo(1);
+        assertThat(job.getErrors()).extracting(ParkingSpotImportJob.RowError::getLine).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Deve marcar a importacao como falha quando o cabecalho for invalido")
+    void shouldFailOnInvalidHeader() throws IOException {
+//        CENARIO
+        write("numero,placa\n101,ABC1234\n");
+        var job = new ParkingSpotImportJob(CONDOMINIUM, "spots.csv", Files.size(file), 100);
+
+//        EXECUCAO
+        service.run(job, file);
+
+//        VERIFICACAO
+        assertThat(job.getStatus()).isEqualTo(ParkingSpotImportJob.Status.FAILED);
+        assertThat(job.getFailureMessage()).isEqualTo("Missing column parkingSpotNumber");
+        Mockito.verify(repository, Mockito.never()).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Deve recusar um novo upload quando a fila de importacoes estiver cheia")
+    void shouldRejectUploadWhenQueueIsFull() throws Exception {
+//        CENARIO
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        Mockito.when(repository.findKeysByCondominiumId(CONDOMINIUM)).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        var upload = new MockMultipartFile("file", "spots.csv", "text/csv",
+                (HEADER + "101,ABC1234,Hyundai,HB20,Branco,Maria,101,A\n").getBytes(StandardCharsets.UTF_8));
+        var first = service.startImport(CONDOMINIUM, upload);
+        assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+
+//        EXECUCAO / VERIFICACAO
+        assertThatThrownBy(() -> service.startImport(CONDOMINIUM, upload)).isInstanceOf(JobQueueFullException.class);
+        assertThat(service.findJob(CONDOMINIUM, first.getId())).contains(first);
+
+        release.countDown();
+        for (int i = 0; i < 100 && !first.isFinished(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(first.getStatus()).isEqualTo(ParkingSpotImportJob.Status.COMPLETED);
+        assertThat(service.startImport(CONDOMINIUM, upload)).isNotNull();
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ParkingSpotRepository.ParkingSpotKeys keys(String number, String plate, String apartment, String block) {
+        return new ParkingSpotRepository.ParkingSpotKeys() {
+            public String getParkingSpotNumber() { return number; }
+            public String getLicensePlateCar() { return plate; }
+            public String getApartment() { return apartment; }
+            public String getBlock() { return block; }
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.api.parkingcontrol.services;
 
+import com.api.parkingcontrol.models.LicensePlateCodec;
 import com.api.parkingcontrol.models.ParkingSpotModel;
+import com.api.parkingcontrol.repositories.JpaParkingSpotStore;
 import com.api.parkingcontrol.repositories.ParkingSpotRepository;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,8 +18,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +32,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 @ExtendWith(SpringExtension.class)
 public class ParkingSpotServiceTest {
 
+    static final String CONDOMINIUM = "residencial-aurora";
+
     ParkingSpotService service;
 
     @MockBean
@@ -35,7 +41,7 @@ public class ParkingSpotServiceTest {
 
     @BeforeEach
     void setUp() {
-        this.service = new ParkingSpotService(repository);
+        this.service = new ParkingSpotService(new JpaParkingSpotStore(repository), new ReadCoalescer(Duration.ofSeconds(1)), 2);
     }
 
     @Test
@@ -62,9 +68,9 @@ public class ParkingSpotServiceTest {
     @DisplayName("Deve retornar TRUE quando existir placa KND1234")
     void shouldReturnTrueWhenExistsByLicensePlateCar() {
         String plate = "KND1234";
-        Mockito.when(repository.existsByLicensePlateCar(plate)).thenReturn(true);
+        Mockito.when(repository.existsByCondominiumIdAndLicensePlateCode(CONDOMINIUM, LicensePlateCodec.encode(plate))).thenReturn(true);
 
-        Boolean result = service.existsByLicensePlateCar(plate);
+        Boolean result = service.existsByLicensePlateCar(CONDOMINIUM, plate);
 
         assertThat(result).isTrue();
 
@@ -74,20 +80,32 @@ public class ParkingSpotServiceTest {
     @DisplayName("Deve retornar FALSE nao existir com placa KND1234")
     void shouldReturnFalseWhenNoExistsByLicensePlateCar() {
         String plate = "KND1234";
-        Mockito.when(repository.existsByLicensePlateCar(plate)).thenReturn(false);
+        Mockito.when(repository.existsByCondominiumIdAndLicensePlateCode(CONDOMINIUM, LicensePlateCodec.encode(plate))).thenReturn(false);
 
-        Boolean result = service.existsByLicensePlateCar(plate);
+        Boolean result = service.existsByLicensePlateCar(CONDOMINIUM, plate);
 
         assertThat(result).isFalse();
     }
 
+    @Test
+    @DisplayName("Deve buscar pela placa em texto quando ela nao puder ser compactada")
+    void shouldFallbackToTextPlateLookup() {
+        String plate = "kn-123";
+        Mockito.when(repository.existsByCondominiumIdAndLicensePlateUnpacked(CONDOMINIUM, plate)).thenReturn(true);
+
+        Boolean result = service.existsByLicensePlateCar(CONDOMINIUM, plate);
+
+        assertThat(result).isTrue();
+        Mockito.verify(repository, Mockito.never()).existsByCondominiumIdAndLicensePlateCode(Mockito.any(), Mockito.any());
+    }
+
     @Test
     @DisplayName("Deve retornar TRUE quando existir ParkingSpotNumber 200A")
     void shouldReturnTrueWhenExistsByParkingSpotNumber() {
         String parkingSpotNumber = "200A";
-        Mockito.when(repository.existsByParkingSpotNumber(parkingSpotNumber)).thenReturn(true);
+        Mockito.when(repository.existsByCondominiumIdAndParkingSpotNumber(CONDOMINIUM, parkingSpotNumber)).thenReturn(true);
 
-        Boolean result = service.existsByParkingSpotNumber(parkingSpotNumber);
+        Boolean result = service.existsByParkingSpotNumber(CONDOMINIUM, parkingSpotNumber);
 
         assertThat(result).isTrue();
 
@@ -97,9 +115,9 @@ public class ParkingSpotServiceTest {
     @DisplayName("Deve retornar FALSE nao existir com ParkingSpotNumber 200A")
     void shouldReturnFalseWhenNoExistsByParkingSpotNumber() {
         String parkingSpotNumber = "200A";
-        Mockito.when(repository.existsByParkingSpotNumber(parkingSpotNumber)).thenReturn(false);
+        Mockito.when(repository.existsByCondominiumIdAndParkingSpotNumber(CONDOMINIUM, parkingSpotNumber)).thenReturn(false);
 
-        Boolean result = service.existsByParkingSpotNumber(parkingSpotNumber);
+        Boolean result = service.existsByParkingSpotNumber(CONDOMINIUM, parkingSpotNumber);
 
         assertThat(result).isFalse();
     }
@@ -109,9 +127,9 @@ public class ParkingSpotServiceTest {
     void shouldReturnTrueWhenExistsByApartmentAndBlock() {
         String apartment = "200";
         String block = "B";
-        Mockito.when(repository.existsByApartmentAndBlock(Mockito.anyString(), Mockito.anyString())).thenReturn(true);
+        Mockito.when(repository.existsByCondominiumIdAndApartmentAndBlock(Mockito.anyString(), Mockito.anyString(), Mockito.anyString())).thenReturn(true);
 
-        Boolean result = service.existsByApartmentAndBlock(apartment, block);
+        Boolean result = service.existsByApartmentAndBlock(CONDOMINIUM, apartment, block);
 
         assertThat(result).isTrue();
 
@@ -122,9 +140,9 @@ public class ParkingSpotServiceTest {
     void shouldReturnFalseWhenNoExistsByApartmentAndBlock() {
         String apartment = "200";
         String block = "B";
-        Mockito.when(repository.existsByApartmentAndBlock(apartment, block)).thenReturn(false);
+        Mockito.when(repository.existsByCondominiumIdAndApartmentAndBlock(CONDOMINIUM, apartment, block)).thenReturn(false);
 
-        Boolean result = service.existsByApartmentAndBlock(apartment, block);
+        Boolean result = service.existsByApartmentAndBlock(CONDOMINIUM, apartment, block);
 
         assertThat(result).isFalse();
     }
@@ -135,11 +153,11 @@ public class ParkingSpotServiceTest {
 
         ParkingSpotModel parkingSpotModel = createParkingSpotModel();
 
-        Mockito.when(repository.findAll(Mockito.any(Pageable.class)))
+        Mockito.when(repository.findAllByCondominiumId(Mockito.eq(CONDOMINIUM), Mockito.any(Pageable.class)))
                 .thenReturn(new PageImpl<ParkingSpotModel>(List.of(parkingSpotModel), PageRequest.of(0, 10), 1));
         PageRequest page = PageRequest.of(0, 10);
 
-        Page<ParkingSpotModel> result = service.findAll(page);
+        Page<ParkingSpotModel> result = service.findAll(CONDOMINIUM, page);
 
         assertThat(result.getContent()).isNotEmpty();
         assertThat(result.getTotalElements()).isEqualTo(1);
@@ -153,14 +171,40 @@ public class ParkingSpotServiceTest {
         ParkingSpotModel parkingSpotModel = createParkingSpotModel();
         parkingSpotModel.setId(id);
 
-        Mockito.when(repository.findById(id)).thenReturn(Optional.of(parkingSpotModel));
+        Mockito.when(repository.findByCondominiumIdAndId(CONDOMINIUM, id)).thenReturn(Optional.of(parkingSpotModel));
 
-        Optional<ParkingSpotModel> result = service.findById(id);
+        Optional<ParkingSpotModel> result = service.findById(CONDOMINIUM, id);
 
         assertThat(result.isPresent()).isTrue();
         assertThat(result.get().getId()).isEqualTo(id);
     }
 
+    @Test
+    @DisplayName("Deve buscar varios ids em lotes, na ordem pedida, e informar os ausentes")
+    void shouldLookupIdsInChunksPreservingOrder() {
+//        CENARIO
+        UUID first = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        ParkingSpotModel firstSpot = createParkingSpotModel();
+        firstSpot.setId(first);
+        ParkingSpotModel thirdSpot = createParkingSpotModel();
+        thirdSpot.setId(third);
+        Mockito.when(repository.findAllByCondominiumIdAndIdIn(CONDOMINIUM, List.of(third, first)))
+                .thenReturn(List.of(firstSpot, thirdSpot));
+        Mockito.when(repository.findAllByCondominiumIdAndIdIn(CONDOMINIUM, List.of(missing)))
+                .thenReturn(List.of());
+        List<UUID> found = new ArrayList<>();
+
+//        EXECUCAO
+        List<UUID> missingIds = service.lookup(CONDOMINIUM, List.of(third, first, third, missing), spot -> found.add(spot.getId()));
+
+//        VERIFICACAO
+        assertThat(found).containsExactly(third, first);
+        assertThat(missingIds).containsExactly(missing);
+        Mockito.verify(repository, Mockito.times(2)).findAllByCondominiumIdAndIdIn(Mockito.eq(CONDOMINIUM), Mockito.anyCollection());
+    }
+
     @Test
     @DisplayName("Deve deletar um parkingSpot")
     void shouldDeleteParkingSpot() {
@@ -176,6 +220,7 @@ public class ParkingSpotServiceTest {
 
     private ParkingSpotModel createParkingSpotModel() {
         ParkingSpotModel model = new ParkingSpotModel();
+        model.setCondominiumId(CONDOMINIUM);
         model.setParkingSpotNumber("300A");
         model.setBrandCar("Hyundai");
         model.setModelCar("HB20");
@@ -0,0 +1,169 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.datasources.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReadCoalescerTest {
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar uma unica consulta entre leituras identicas simultaneas")
+    void shouldShareInFlightRead() throws Exception {
+//        CENARIO
+        ReadCoalescer coalescer = new ReadCoalescer(Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> coalescer.execute("findById", "spot-1", () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "spot";
+        }, UnaryOperator.identity()));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+//        EXECUCAO
+        Future<String> follower = executor.submit(() -> coalescer.execute("findById", "spot-1", () -> {
+            loads.incrementAndGet();
+            return "other";
+        }, value -> value + "-copy"));
+        waitUntilFollowerJoined(registry);
+        release.countDown();
+
+//        VERIFICACAO
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("spot");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("spot-copy");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(registry.get("parking.coalescing.ratio").tag("operation", "findById").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Deve propagar o erro da consulta para quem aguardava")
+    void shouldPropagateLeaderError() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> coalescer.execute("findById", "spot-1", () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }, UnaryOperator.identity()));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        Future<Object> follower = executor.submit(() -> coalescer.execute("findById", "spot-1", () -> "unused", UnaryOperator.identity()));
+        waitUntilFollowerJoined(registry);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("database down");
+    }
+
+    @Test
+    @DisplayName("Deve falhar por timeout quando a consulta compartilhada demorar demais")
+    void shouldTimeoutFollower() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(Duration.ofMillis(50));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit(() -> coalescer.execute("findAll", "page-0", () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "page";
+        }, UnaryOperator.identity()));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> coalescer.execute("findAll", "page-0", () -> "unused", UnaryOperator.identity()))
+                .isInstanceOf(ReadCoalescingTimeoutException.class);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve consultar novamente depois que a leitura em andamento terminar")
+    void shouldNotCacheCompletedReads() {
+        ReadCoalescer coalescer = new ReadCoalescer(Duration.ofSeconds(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        coalescer.execute("findById", "spot-1", loads::incrementAndGet, UnaryOperator.identity());
+        coalescer.execute("findById", "spot-1", loads::incrementAndGet, UnaryOperator.identity());
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Nao deve juntar uma leitura fixada no primario a uma leitura da replica em andamento")
+    void shouldNotSharePinnedReadWithReplicaRead() throws Exception {
+//        CENARIO
+        ReadCoalescer coalescer = new ReadCoalescer(Duration.ofSeconds(5));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> replicaRead = executor.submit(() -> coalescer.execute("findById", "spot-1", () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "stale";
+        }, UnaryOperator.identity()));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+//        EXECUCAO
+        Future<String> pinnedRead = executor.submit(() -> {
+            ReadYourWritesTracker.pinPrimary();
+            try {
+                return coalescer.execute("findById", "spot-1", () -> "fresh", UnaryOperator.identity());
+            } finally {
+                ReadYourWritesTracker.unpin();
+            }
+        });
+
+//        VERIFICACAO
+        assertThat(pinnedRead.get(5, TimeUnit.SECONDS)).isEqualTo("fresh");
+        release.countDown();
+        assertThat(replicaRead.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+    }
+
+    private void waitUntilFollowerJoined(SimpleMeterRegistry registry) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            var counter = registry.find("parking.coalescing.calls").tag("role", "follower").functionCounter();
+            if (counter != null && counter.count() > 0) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.VisitorReservationModel;
+import com.api.parkingcontrol.repositories.VisitorReservationRepository;
+import com.api.parkingcontrol.support.Benchmark;
+import com.api.parkingcontrol.support.BenchmarkTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Booking throughput with 16 concurrent clients, on a few hot spots and spread over many spots, with
+ * the database replaced by a stub that optionally sleeps to stand in for the insert round trip.
+ * Run with {@code mvn test -Dtest=VisitorReservationServiceBenchmarkTest -Dbenchmarks=true}.
+ */
+@BenchmarkTest
+public class VisitorReservationServiceBenchmarkTest {
+
+    static final int THREADS = 16;
+    static final LocalDateTime START = LocalDateTime.now(ZoneId.of("UTC")).plusDays(1).withMinute(0).withSecond(0).withNano(0);
+
+    @Test
+    @DisplayName("Benchmark: reservas concorrentes por vaga")
+    void bookUnderContention() throws Exception {
+        run("4 hot spots, in memory", 4, 0, 200_000);
+        run("1024 spots, in memory", 1024, 0, 200_000);
+        run("4 hot spots, 1 ms insert", 4, 1, 4_000);
+        run("1024 spots, 1 ms insert", 1024, 1, 4_000);
+    }
+
+    private void run(String scenario, int spots, long insertMillis, int bookings) throws Exception {
+        Benchmark.run(scenario, 3, THREADS, "bookings", () -> book(spots, insertMillis, bookings));
+    }
+
+    /**
+     * Books on a fresh service, so every round starts from an empty calendar.
+     */
+    private long book(int spots, long insertMillis, int bookings) throws Exception {
+        VisitorReservationRepository repository = Mockito.mock(VisitorReservationRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(repository.saveAndFlush(Mockito.any(VisitorReservationModel.class))).thenAnswer(invocation -> {
+            if (insertMillis > 0) {
+                Thread.sleep(insertMillis);
+            }
+            VisitorReservationModel reservation = invocation.getArgument(0);
+            reservation.setId(UUID.randomUUID());
+            return reservation;
+        });
+        var service = new VisitorReservationService(repository, Duration.ofHours(1));
+        List<UUID> spotIds = new ArrayList<>();
+        for (int i = 0; i < spots; i++) {
+            spotIds.add(UUID.randomUUID());
+        }
+
+        var accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < bookings / THREADS; i++) {
+                    LocalDateTime startsAt = START.plusHours(random.nextInt(24 * 365));
+                    var reservation = new VisitorReservationModel();
+                    reservation.setParkingSpotId(spotIds.get(random.nextInt(spots)));
+                    reservation.setStartsAt(startsAt);
+                    reservation.setEndsAt(startsAt.plusHours(1 + random.nextInt(3)));
+                    if (service.reserve(reservation).isPresent()) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(accepted.get()).isPositive();
+        return bookings;
+    }
+}
@@ -0,0 +1,132 @@
+package com.api.parkingcontrol.services;
+
+import com.api.parkingcontrol.models.VisitorReservationModel;
+import com.api.parkingcontrol.repositories.VisitorReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VisitorReservationServiceTest {
+
+    static final String CONDOMINIUM = "residencial-aurora";
+    static final LocalDateTime TOMORROW = LocalDateTime.now(ZoneId.of("UTC")).plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    VisitorReservationService service;
+    VisitorReservationRepository repository;
+    UUID parkingSpotId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(VisitorReservationRepository.class);
+        Mockito.when(repository.saveAndFlush(Mockito.any(VisitorReservationModel.class))).thenAnswer(invocation -> {
+            VisitorReservationModel reservation = invocation.getArgument(0);
+            reservation.setId(UUID.randomUUID());
+            return reservation;
+        });
+        service = new VisitorReservationService(repository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve recusar uma reserva que sobrepoe outra da mesma vaga")
+    void shouldRejectOverlappingReservation() {
+//        CENARIO
+        service.reserve(reservation(parkingSpotId, 10, 12));
+
+//        EXECUCAO
+        Optional<VisitorReservationModel> overlapping = service.reserve(reservation(parkingSpotId, 11, 13));
+        Optional<VisitorReservationModel> inside = service.reserve(reservation(parkingSpotId, 10, 11));
+
+//        VERIFICACAO
+        assertThat(overlapping).isEmpty();
+        assertThat(inside).isEmpty();
+        Mockito.verify(repository, Mockito.times(1)).saveAndFlush(Mockito.any(VisitorReservationModel.class));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar reservas encostadas e reservas de outras vagas no mesmo periodo")
+    void shouldAcceptAdjacentAndOtherSpotReservations() {
+//        CENARIO
+        service.reserve(reservation(parkingSpotId, 10, 12));
+
+//        EXECUCAO
+        Optional<VisitorReservationModel> before = service.reserve(reservation(parkingSpotId, 8, 10));
+        Optional<VisitorReservationModel> after = service.reserve(reservation(parkingSpotId, 12, 14));
+        Optional<VisitorReservationModel> otherSpot = service.reserve(reservation(UUID.randomUUID(), 10, 12));
+
+//        VERIFICACAO
+        assertThat(before).isPresent();
+        assertThat(after).isPresent();
+        assertThat(otherSpot).isPresent();
+    }
+
+    @Test
+    @DisplayName("Deve carregar as reservas existentes da vaga antes da primeira verificacao")
+    void shouldLoadExistingReservations() {
+//        CENARIO
+        VisitorReservationModel existing = reservation(parkingSpotId, 10, 12);
+        existing.setId(UUID.randomUUID());
+        Mockito.when(repository.findAllByParkingSpotIdAndEndsAtAfterOrderByStartsAt(Mockito.eq(parkingSpotId), Mockito.any()))
+                .thenReturn(List.of(existing));
+
+//        EXECUCAO
+        Optional<VisitorReservationModel> result = service.reserve(reservation(parkingSpotId, 11, 12));
+
+//        VERIFICACAO
+        assertThat(result).isEmpty();
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any(VisitorReservationModel.class));
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o calendario quando o banco recusar a reserva")
+    void shouldReloadCalendarOnDatabaseConflict() {
+//        CENARIO
+        Mockito.when(repository.saveAndFlush(Mockito.any(VisitorReservationModel.class)))
+                .thenThrow(new DataIntegrityViolationException("ex_visitor_reservation_spot_period"));
+
+//        EXECUCAO
+        Optional<VisitorReservationModel> first = service.reserve(reservation(parkingSpotId, 10, 12));
+        service.reserve(reservation(parkingSpotId, 14, 16));
+
+//        VERIFICACAO
+        assertThat(first).isEmpty();
+        Mockito.verify(repository, Mockito.times(2)).findAllByParkingSpotIdAndEndsAtAfterOrderByStartsAt(Mockito.eq(parkingSpotId), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve liberar o periodo quando a reserva for cancelada")
+    void shouldFreePeriodOnCancel() {
+//        CENARIO
+        VisitorReservationModel saved = service.reserve(reservation(parkingSpotId, 10, 12)).orElseThrow();
+
+//        EXECUCAO
+        service.cancel(saved);
+        Optional<VisitorReservationModel> result = service.reserve(reservation(parkingSpotId, 10, 12));
+
+//        VERIFICACAO
+        assertThat(result).isPresent();
+        Mockito.verify(repository).delete(saved);
+    }
+
+    private VisitorReservationModel reservation(UUID spotId, int startHour, int endHour) {
+        var reservation = new VisitorReservationModel();
+        reservation.setCondominiumId(CONDOMINIUM);
+        reservation.setParkingSpotId(spotId);
+        reservation.setVisitorName("Carlos Souza");
+        reservation.setLicensePlateCar("ABC1234");
+        reservation.setStartsAt(TOMORROW.withHour(startHour));
+        reservation.setEndsAt(TOMORROW.withHour(endHour));
+        reservation.setRegistrationDate(LocalDateTime.now(ZoneId.of("UTC")));
+        return reservation;
+    }
+}
@@ -0,0 +1,48 @@
+package com.api.parkingcontrol.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Times a workload over several rounds and logs the throughput of each one:
+ * <pre>
+ * Benchmark.run("CSV import", 3, pool.getParallelism(), "rows", () -> {
+ *     int rows = importFile();
+ *     assertThat(rows).isEqualTo(ROWS);
+ *     return rows;
+ * });
+ * </pre>
+ * The first rounds also warm up the JIT, so compare the last ones.
+ */
+public final class Benchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(Benchmark.class);
+
+    private Benchmark() {
+    }
+
+    @FunctionalInterface
+    public interface Round {
+
+        /**
+         * @return the number of operations done, counted in the benchmark's unit
+         */
+        long run() throws Exception;
+    }
+
+    /**
+     * @param threads the threads the workload runs on, only reported
+     * @param unit    what an operation is, e.g. {@code "rows"}
+     */
+    public static void run(String name, int rounds, int threads, String unit, Round round) throws Exception {
+        for (int i = 1; i <= rounds; i++) {
+            long start = System.nanoTime();
+            long operations = round.run();
+            long elapsedNanos = Math.max(1, System.nanoTime() - start);
+            log.info(String.format("%s, round %d/%d: %d %s in %d ms, %d %s/s, %.2f us each, %d thread(s)",
+                    name, i, rounds, operations, unit, elapsedNanos / 1_000_000,
+                    operations * 1_000_000_000L / elapsedNanos, unit,
+                    operations == 0 ? 0 : elapsedNanos / 1e3 / operations, threads));
+        }
+    }
+}
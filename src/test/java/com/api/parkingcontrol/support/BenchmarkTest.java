@@ -0,0 +1,23 @@
+package com.api.parkingcontrol.support;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a benchmark class. Benchmarks are skipped by the regular build and only run when asked for,
+ * e.g. {@code mvn test -Dtest=BillingServiceBenchmarkTest -Dbenchmarks=true}; they measure through
+ * {@link Benchmark}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public @interface BenchmarkTest {
+}
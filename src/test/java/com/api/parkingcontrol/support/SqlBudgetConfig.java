@@ -0,0 +1,32 @@
+package com.api.parkingcontrol.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource so every statement passes through {@link SqlStatementRecorder}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlBudgetConfig {
+
+    @Bean
+    static BeanPostProcessor sqlStatementRecordingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                            .name(beanName)
+                            .listener(new SqlStatementRecorder())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.api.parkingcontrol.support;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Boots the whole application on an embedded H2 database with SQL recording, for tests that put a
+ * budget on the statements an endpoint may execute:
+ * <pre>
+ * try (SqlCapture sql = SqlStatementRecorder.capture()) {
+ *     mvc.perform(get("/parking-spot/{id}", id)).andExpect(status().isOk());
+ *     sql.assertWithinBudget("GET /parking-spot/{id}", 1);
+ * }
+ * </pre>
+ * Scheduled jobs are switched off so they cannot run SQL in the middle of a measurement.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@SpringBootTest(properties = "parking-control.scheduling.enabled=false")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(SqlBudgetConfig.class)
+public @interface SqlBudgetTest {
+}
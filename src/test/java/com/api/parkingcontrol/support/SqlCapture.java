@@ -0,0 +1,53 @@
+package com.api.parkingcontrol.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The SQL round trips of one block of test code. A JDBC batch counts as a single round trip.
+ */
+public class SqlCapture implements AutoCloseable {
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+    private final Runnable onClose;
+
+    SqlCapture(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    void record(String statement) {
+        statements.add(statement);
+    }
+
+    public int getRoundTrips() {
+        return statements.size();
+    }
+
+    public List<String> getStatements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * @param endpoint shown in the failure message, e.g. {@code "PUT /parking-spot/{id}"}
+     * @throws AssertionError listing every statement when more than {@code maxRoundTrips} were executed
+     */
+    public void assertWithinBudget(String endpoint, int maxRoundTrips) {
+        List<String> executed = getStatements();
+        if (executed.size() <= maxRoundTrips) {
+            return;
+        }
+        var message = new StringBuilder()
+                .append(endpoint).append(" executed ").append(executed.size())
+                .append(" SQL round trips, budget is ").append(maxRoundTrips).append(':');
+        for (int i = 0; i < executed.size(); i++) {
+            message.append(System.lineSeparator()).append(String.format("  %2d. ", i + 1)).append(executed.get(i));
+        }
+        throw new AssertionError(message.toString());
+    }
+
+    @Override
+    public void close() {
+        onClose.run();
+    }
+}
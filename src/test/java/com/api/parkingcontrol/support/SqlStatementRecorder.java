@@ -0,0 +1,39 @@
+package com.api.parkingcontrol.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Hands every JDBC execution of the proxied DataSource to the {@link SqlCapture} open on the
+ * executing thread, if any. Executions of other threads (schedulers, pools) are not recorded.
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private static final ThreadLocal<SqlCapture> CAPTURE = new ThreadLocal<>();
+
+    /**
+     * Starts recording the statements executed by the current thread until the capture is closed.
+     */
+    public static SqlCapture capture() {
+        var capture = new SqlCapture(() -> CAPTURE.remove());
+        CAPTURE.set(capture);
+        return capture;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlCapture capture = CAPTURE.get();
+        if (capture != null) {
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            capture.record(execInfo.isBatch() ? sql + " [batch of " + execInfo.getBatchSize() + "]" : sql);
+        }
+    }
+}